@@ -0,0 +1,83 @@
+package com.reviewdashboard.bench;
+
+import com.reviewdashboard.entity.Review;
+import com.reviewdashboard.service.impl.ReviewBulkLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// Compares insert throughput of each persist mode against the configured database.
+// Run with: mvn -P jmh spring-boot:run -Dspring-boot.run.profiles=bench
+@lombok.extern.slf4j.Slf4j
+@Component
+@Profile("bench")
+public class BulkLoadBenchmark implements CommandLineRunner {
+
+    private final ReviewBulkLoader loader;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Row counts to load per mode
+    @Value("${bench.bulk-load.sizes:100000,1000000}")
+    private List<Integer> sizes;
+
+    // Modes to compare
+    @Value("${bench.bulk-load.modes:jpa,jdbc-batch,copy}")
+    private List<String> modes;
+
+    // Rows written per insert call, same as ingestion
+    @Value("${review.ingest.chunk-size:1000}")
+    private int chunkSize;
+
+    public BulkLoadBenchmark(ReviewBulkLoader loader, JdbcTemplate jdbcTemplate) {
+        this.loader = loader;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (int rows : sizes) {
+            for (String mode : modes) {
+                ReviewBulkLoader.Mode insertMode =
+                        ReviewBulkLoader.Mode.valueOf(mode.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+                runOnce(insertMode, rows);
+            }
+        }
+    }
+
+    private void runOnce(ReviewBulkLoader.Mode mode, int rows) {
+        String batchId = "bench-" + UUID.randomUUID();
+        long start = System.nanoTime();
+
+        for (int written = 0; written < rows; written += chunkSize) {
+            int size = Math.min(chunkSize, rows - written);
+            loader.insert(syntheticChunk(batchId, written, size), mode);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.info("Bulk load {} rows with {}: {} s, {} rows/sec",
+                rows, mode, String.format("%.2f", seconds), String.format("%.0f", rows / seconds));
+
+        // Remove benchmark rows so repeated runs start from the same table size
+        jdbcTemplate.update("DELETE FROM reviews WHERE batch_id = ?", batchId);
+    }
+
+    private List<Review> syntheticChunk(String batchId, int offset, int size) {
+        List<Review> chunk = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chunk.add(Review.builder()
+                    .reviewText("Synthetic review " + (offset + i) + ", \"quoted\" text with a few more words")
+                    .productId("UNKNOWN")
+                    .batchId(batchId)
+                    .sentiment("PENDING")
+                    .build());
+        }
+        return chunk;
+    }
+}
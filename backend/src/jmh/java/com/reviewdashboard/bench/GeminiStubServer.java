@@ -0,0 +1,274 @@
+package com.reviewdashboard.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+// Local stand-in for the Gemini generateContent and streamGenerateContent endpoints.
+// Answers sentiment and summary prompts with synthetic output, with configurable latency,
+// 429 rate, malformed-JSON rate and output size. Settings are system properties (stub.*).
+// Run with: mvn -P jmh compile exec:java "-Dexec.mainClass=com.reviewdashboard.bench.GeminiStubServer"
+// and start the backend with gemini.api.base-url=http://localhost:8090/v1beta
+@lombok.extern.slf4j.Slf4j
+public class GeminiStubServer {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Numbered review lines of the sentiment prompt
+    private static final Pattern REVIEW_LINE = Pattern.compile("(?m)^(\\d+)\\. ");
+
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEUTRAL", "NEGATIVE"};
+
+    // Compact answer letters for the same labels
+    private static final String LETTERS = "PUN";
+
+    private final int port = Integer.getInteger("stub.port", 8090);
+    private final int threads = Integer.getInteger("stub.threads", 256);
+
+    // Latency: fixed, uniform (min..max) or lognormal (median, sigma); plus a per-review cost
+    private final String latencyDistribution = System.getProperty("stub.latency.distribution", "lognormal");
+    private final long latencyMinMs = Long.getLong("stub.latency.min-ms", 200);
+    private final long latencyMaxMs = Long.getLong("stub.latency.max-ms", 4000);
+    private final long latencyMedianMs = Long.getLong("stub.latency.median-ms", 1500);
+    private final double latencySigma = Double.parseDouble(System.getProperty("stub.latency.sigma", "0.5"));
+    private final double latencyPerReviewMs = Double.parseDouble(System.getProperty("stub.latency.per-review-ms", "2"));
+
+    // Fractions of requests answered with 429, or with JSON cut off part-way
+    private final double rate429 = Double.parseDouble(System.getProperty("stub.rate-429", "0.02"));
+    private final long retryAfterSeconds = Long.getLong("stub.retry-after-seconds", 1);
+    private final double malformedRate = Double.parseDouble(System.getProperty("stub.malformed-rate", "0.01"));
+
+    // Output size: fraction of sentiment results left out, items per pros/cons list, padding per item
+    private final double dropRate = Double.parseDouble(System.getProperty("stub.output.drop-rate", "0"));
+    private final int summaryItems = Integer.getInteger("stub.output.summary-items", 5);
+    private final int paddingChars = Integer.getInteger("stub.output.padding-chars", 0);
+
+    // Fragments per streamed response
+    private final int streamFragments = Integer.getInteger("stub.stream.fragments", 8);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+
+    public static void main(String[] args) throws IOException {
+        new GeminiStubServer().start();
+    }
+
+    private void start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/v1beta/models/", this::handle);
+        server.start();
+        log.info("Gemini stub listening on http://localhost:{}/v1beta ({} latency, 429 rate {}, malformed rate {})",
+                port, latencyDistribution, rate429, malformedRate);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(0);
+            executor.shutdownNow();
+            log.info("Gemini stub served {} requests, {} throttled, {} malformed",
+                    requests.get(), throttled.get(), malformed.get());
+        }));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            boolean streaming = path.endsWith(":streamGenerateContent");
+            if (!"POST".equals(exchange.getRequestMethod())
+                    || !(streaming || path.endsWith(":generateContent"))) {
+                sendJson(exchange, 404, "{\"error\":{\"code\":404,\"message\":\"Not found\"}}");
+                return;
+            }
+
+            String prompt = readPrompt(exchange);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            if (random.nextDouble() < rate429) {
+                throttled.incrementAndGet();
+                pause(latencyMinMs);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+                sendJson(exchange, 429,
+                        "{\"error\":{\"code\":429,\"message\":\"Resource has been exhausted\",\"status\":\"RESOURCE_EXHAUSTED\"}}");
+                return;
+            }
+
+            List<Integer> indices = reviewIndices(prompt);
+            String text = indices.isEmpty() ? summaryText() : sentimentText(prompt, indices);
+            if (random.nextDouble() < malformedRate) {
+                malformed.incrementAndGet();
+                text = text.substring(0, random.nextInt(text.length() / 2 + 1));
+            }
+
+            long latency = sampleLatency(indices.size());
+            if (streaming) {
+                stream(exchange, text, latency);
+            } else {
+                pause(latency);
+                sendJson(exchange, 200, MAPPER.writeValueAsString(responseFor(text)));
+            }
+        } catch (Exception e) {
+            log.warn("Stub request failed: {}", e.getMessage());
+        }
+    }
+
+    // Extracts contents[0].parts[0].text, accepting gzip request bodies
+    private String readPrompt(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+        JsonNode request = MAPPER.readTree(body);
+        return request.path("contents").path(0).path("parts").path(0).path("text").asText("");
+    }
+
+    private List<Integer> reviewIndices(String prompt) {
+        List<Integer> indices = new ArrayList<>();
+        if (!prompt.contains("Classify the sentiment"))
+            return indices;
+
+        Matcher matcher = REVIEW_LINE.matcher(prompt);
+        while (matcher.find()) {
+            indices.add(Integer.parseInt(matcher.group(1)));
+        }
+        return indices;
+    }
+
+    // Sentiment is derived from the review line so repeated texts get the same label.
+    // Prompts asking for one letter per review get the compact answer, others a JSON array.
+    private String sentimentText(String prompt, List<Integer> indices) throws IOException {
+        boolean compact = prompt.contains("one letter per review");
+        ArrayNode results = MAPPER.createArrayNode();
+        StringBuilder letters = new StringBuilder();
+        String[] lines = prompt.split("\n");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int next = 0;
+        for (String line : lines) {
+            if (next >= indices.size())
+                break;
+            if (!line.startsWith(indices.get(next) + ". "))
+                continue;
+
+            int index = indices.get(next++);
+            // A dropped compact letter shifts the rest of the answer, as a real miscount would
+            if (dropRate > 0 && random.nextDouble() < dropRate)
+                continue;
+
+            String review = line.substring(line.indexOf(". ") + 2);
+            int sentiment = Math.floorMod(review.hashCode(), SENTIMENTS.length);
+            if (compact) {
+                if (letters.length() > 0 && letters.length() % 11 == 10)
+                    letters.append(' ');
+                letters.append(LETTERS.charAt(sentiment));
+            } else {
+                ObjectNode result = results.addObject();
+                result.put("index", index);
+                result.put("sentiment", SENTIMENTS[sentiment]);
+            }
+        }
+        if (compact)
+            return letters.append('=').append(indices.size()).toString();
+        return MAPPER.writeValueAsString(results);
+    }
+
+    private String summaryText() throws IOException {
+        ObjectNode summary = MAPPER.createObjectNode();
+        ArrayNode pros = summary.putArray("pros");
+        ArrayNode cons = summary.putArray("cons");
+        for (int i = 1; i <= summaryItems; i++) {
+            pros.add(pad("Stub pro " + i));
+            cons.add(pad("Stub con " + i));
+        }
+        summary.put("summary", pad("Synthetic summary from the Gemini stub."));
+        return MAPPER.writeValueAsString(summary);
+    }
+
+    private String pad(String text) {
+        return paddingChars > 0 ? text + " " + "x".repeat(paddingChars) : text;
+    }
+
+    private ObjectNode responseFor(String text) {
+        ObjectNode response = MAPPER.createObjectNode();
+        ObjectNode candidate = response.putArray("candidates").addObject();
+        ObjectNode content = candidate.putObject("content");
+        content.putArray("parts").addObject().put("text", text);
+        content.put("role", "model");
+        candidate.put("finishReason", "STOP");
+        return response;
+    }
+
+    // Sends the text as SSE events, spreading the latency across the fragments
+    private void stream(HttpExchange exchange, String text, long latency) throws IOException {
+        int fragments = Math.max(1, Math.min(streamFragments, text.length()));
+        long firstByteDelay = latency / 4;
+        long fragmentDelay = (latency - firstByteDelay) / fragments;
+
+        pause(firstByteDelay);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        int step = (text.length() + fragments - 1) / fragments;
+        for (int start = 0; start < text.length(); start += step) {
+            String fragment = text.substring(start, Math.min(text.length(), start + step));
+            String event = "data: " + MAPPER.writeValueAsString(responseFor(fragment)) + "\r\n\r\n";
+            out.write(event.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            pause(fragmentDelay);
+        }
+    }
+
+    private long sampleLatency(int reviews) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double base;
+        switch (latencyDistribution.toLowerCase(Locale.ROOT)) {
+            case "fixed":
+                base = latencyMedianMs;
+                break;
+            case "uniform":
+                base = latencyMinMs + random.nextDouble() * Math.max(0, latencyMaxMs - latencyMinMs);
+                break;
+            default:
+                base = latencyMedianMs * Math.exp(latencySigma * random.nextGaussian());
+                break;
+        }
+        return (long) (base + reviews * latencyPerReviewMs);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0)
+            return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.reviewdashboard.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// End-to-end load test: uploads synthetic CSVs through /reviews/upload, polls each batch
+// until its summary exists and reports reviews/sec and p50/p99 time-to-summary.
+// Settings are system properties (load.*). Pair with GeminiStubServer to avoid the real API.
+// Run with: mvn -P jmh compile exec:java "-Dexec.mainClass=com.reviewdashboard.bench.LoadTestDriver" "-Dload.rows=100000"
+@lombok.extern.slf4j.Slf4j
+public class LoadTestDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] OPENINGS = {"Great", "Terrible", "Decent", "Awful", "Solid", "Mediocre", "Excellent"};
+    private static final String[] SUBJECTS = {"battery life", "build quality", "delivery", "price", "screen",
+            "customer support", "sound", "packaging", "setup", "design"};
+    private static final String[] ENDINGS = {"would buy again", "returned it", "as expected",
+            "not worth it", "exceeded expectations", "okay for the price"};
+
+    private final String target = System.getProperty("load.target", "http://localhost:8080/api/reviews");
+    private final int uploads = Integer.getInteger("load.uploads", 8);
+    private final int rows = Integer.getInteger("load.rows", 10000);
+    private final int concurrency = Integer.getInteger("load.concurrency", 4);
+    private final double duplicateRate = Double.parseDouble(System.getProperty("load.duplicate-rate", "0.2"));
+    private final long pollMs = Long.getLong("load.poll-ms", 500);
+    private final long timeoutSeconds = Long.getLong("load.timeout-seconds", 1800);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestDriver().run();
+    }
+
+    private void run() throws Exception {
+        log.info("Load test: {} uploads of {} rows, {} concurrent, against {}", uploads, rows, concurrency, target);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Long>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < uploads; i++) {
+            long seed = i;
+            futures.add(executor.submit(() -> runUpload(seed)));
+        }
+
+        List<Long> timesToSummary = new ArrayList<>();
+        int failed = 0;
+        for (Future<Long> future : futures) {
+            try {
+                timesToSummary.add(future.get());
+            } catch (Exception e) {
+                failed++;
+                log.warn("Upload failed: {}", e.getMessage());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        executor.shutdown();
+
+        Collections.sort(timesToSummary);
+        long completedReviews = (long) timesToSummary.size() * rows;
+        log.info("Completed {} of {} uploads in {} s ({} failed)",
+                timesToSummary.size(), uploads, String.format("%.1f", seconds), failed);
+        log.info("Throughput: {} reviews/sec", String.format("%.0f", completedReviews / seconds));
+        log.info("Time to summary: p50 {} ms, p99 {} ms, max {} ms",
+                percentile(timesToSummary, 0.50), percentile(timesToSummary, 0.99), percentile(timesToSummary, 1.0));
+    }
+
+    // Uploads one synthetic file and waits for its summary; returns milliseconds from upload start
+    private long runUpload(long seed) throws Exception {
+        Path csv = writeCsv(seed);
+        try {
+            long start = System.nanoTime();
+            String batchId = upload(csv);
+            awaitSummary(batchId, start);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Batch {}: {} rows summarized in {} ms", batchId, rows, elapsedMs);
+            return elapsedMs;
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private Path writeCsv(long seed) throws IOException {
+        Random random = new Random(seed);
+        Path csv = Files.createTempFile("loadtest-", ".csv");
+        List<String> recent = new ArrayList<>();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("review_text\n");
+            for (int i = 0; i < rows; i++) {
+                String text;
+                if (!recent.isEmpty() && random.nextDouble() < duplicateRate) {
+                    text = recent.get(random.nextInt(recent.size()));
+                } else {
+                    text = OPENINGS[random.nextInt(OPENINGS.length)] + " " + SUBJECTS[random.nextInt(SUBJECTS.length)]
+                            + ", " + ENDINGS[random.nextInt(ENDINGS.length)] + " (order " + seed + "-" + i + ")";
+                    if (recent.size() < 1000) {
+                        recent.add(text);
+                    }
+                }
+                writer.write('"' + text.replace("\"", "\"\"") + "\"\n");
+            }
+        }
+        return csv;
+    }
+
+    // Streams the file as multipart/form-data; waits and retries while the backend is at capacity
+    private String upload(Path csv) throws Exception {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + csv.getFileName() + "\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        while (true) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/upload"))
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.concat(
+                            HttpRequest.BodyPublishers.ofString(head),
+                            HttpRequest.BodyPublishers.ofFile(csv),
+                            HttpRequest.BodyPublishers.ofString(tail)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() == 503) {
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(5);
+                log.info("Backend at capacity, retrying upload in {} s", retryAfter);
+                Thread.sleep(retryAfter * 1000);
+                continue;
+            }
+            if (response.statusCode() != 200)
+                throw new IllegalStateException("Upload returned " + response.statusCode() + ": " + response.body());
+            return MAPPER.readTree(response.body()).path("batchId").asText();
+        }
+    }
+
+    private void awaitSummary(String batchId, long startNanos) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/analysis/" + batchId)).GET().build();
+        long deadline = startNanos + Duration.ofSeconds(timeoutSeconds).toNanos();
+
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            // 202 while pending, 200 once the summary is saved
+            if (response.statusCode() == 200)
+                return;
+            Thread.sleep(pollMs);
+        }
+        throw new IllegalStateException("Batch " + batchId + " not summarized within " + timeoutSeconds + " s");
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty())
+            return 0;
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, index)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.reviewdashboard.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic inputs shared by the benchmarks
+final class BenchmarkData {
+
+    private static final String[] REVIEWS = {
+            "Great battery life, lasts two days",
+            "Terrible build quality. The hinge broke after a week and support never answered",
+            "It's okay",
+            "Screen is bright, colours are accurate, \"best purchase this year\"",
+            "Delivery was late but the product itself works as described, would probably buy again"
+    };
+
+    private static final String[] SENTIMENTS = {"POSITIVE", "NEUTRAL", "NEGATIVE"};
+
+    private BenchmarkData() {
+    }
+
+    static String review(int i) {
+        return REVIEWS[i % REVIEWS.length] + " #" + i;
+    }
+
+    static String sentiment(int i) {
+        return SENTIMENTS[i % SENTIMENTS.length];
+    }
+
+    static List<String> reviews(int count) {
+        List<String> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(review(i));
+        }
+        return reviews;
+    }
+
+    // Quoted first column with embedded commas and escaped quotes, as uploads contain
+    static String csvLine(int i) {
+        return "\"" + review(i).replace("\"", "\"\"") + "\",P" + (i % 50);
+    }
+
+    // Sentiment array as the model returns it, wrapped in a markdown fence
+    static String sentimentResponse(int count) {
+        StringBuilder json = new StringBuilder("```json\n[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0)
+                json.append(",\n");
+            json.append("{\"index\": ").append(i).append(", \"sentiment\": \"").append(sentiment(i)).append("\"}");
+        }
+        return json.append("]\n```").toString();
+    }
+
+    // Compact answer for the same labels: letters in groups of ten and the letter count
+    static String compactResponse(int count) {
+        StringBuilder letters = new StringBuilder(count + count / 10 + 8);
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && i % CompactSentimentDecoder.GROUP_SIZE == 0)
+                letters.append(' ');
+            letters.append("PUN".charAt(i % SENTIMENTS.length));
+        }
+        return letters.append('=').append(count).toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.reviewdashboard.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV row splitting during upload ingestion
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvParseBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int rows;
+
+    private List<String> lines;
+    private byte[] file;
+
+    @Setup
+    public void setUp() {
+        lines = new ArrayList<>(rows);
+        StringBuilder csv = new StringBuilder("review_text,product_id\n");
+        for (int i = 0; i < rows; i++) {
+            String line = BenchmarkData.csvLine(i);
+            lines.add(line);
+            csv.append(line).append('\n');
+        }
+        file = csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void parseLines(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(ReviewCsvReader.parseReviewText(line));
+        }
+    }
+
+    @Benchmark
+    public void readStream(Blackhole blackhole) throws IOException {
+        try (ReviewCsvReader reader = new ReviewCsvReader(new ByteArrayInputStream(file))) {
+            String text;
+            while ((text = reader.nextReviewText()) != null) {
+                blackhole.consume(text);
+            }
+        }
+    }
+}
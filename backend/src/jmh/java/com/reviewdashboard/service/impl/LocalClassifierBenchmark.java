@@ -0,0 +1,45 @@
+package com.reviewdashboard.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+// Lexicon classification that every cache miss goes through before a prompt is built
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocalClassifierBenchmark {
+
+    private LocalSentimentClassifier classifier;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() {
+        classifier = new LocalSentimentClassifier(true, 0.75, 40, new ClassPathResource("sentiment-lexicon.txt"));
+        texts = BenchmarkData.reviews(1000);
+    }
+
+    @Benchmark
+    public int resolveThousand() {
+        int resolved = 0;
+        for (String text : texts) {
+            if (classifier.resolve(text) != null) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+}
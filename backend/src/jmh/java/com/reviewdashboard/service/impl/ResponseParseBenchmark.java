@@ -0,0 +1,92 @@
+package com.reviewdashboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cleaning and parsing model output for sentiment requests
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParseBenchmark {
+
+    // Roughly the size of one streamed event
+    private static final int FRAGMENT_CHARS = 64;
+
+    @Param({"10", "200", "2000"})
+    private int elements;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    private String response;
+    private List<String> fragments;
+    private String compactResponse;
+
+    @Setup
+    public void setUp() {
+        response = BenchmarkData.sentimentResponse(elements);
+        compactResponse = BenchmarkData.compactResponse(elements);
+        fragments = new ArrayList<>();
+        for (int i = 0; i < response.length(); i += FRAGMENT_CHARS) {
+            fragments.add(response.substring(i, Math.min(response.length(), i + FRAGMENT_CHARS)));
+        }
+    }
+
+    @Benchmark
+    public String cleanJson() {
+        return GeminiServiceImpl.cleanJson(response);
+    }
+
+    // Tree parse of the cleaned text, for comparison with the push parser
+    @Benchmark
+    public JsonNode cleanAndReadTree() throws IOException {
+        return objectMapper.readTree(GeminiServiceImpl.cleanJson(response));
+    }
+
+    @Benchmark
+    public void incrementalWhole(Blackhole blackhole) throws IOException {
+        IncrementalSentimentParser parser = new IncrementalSentimentParser(jsonFactory,
+                (position, index, sentiment) -> blackhole.consume(sentiment));
+        parser.feed(response);
+        blackhole.consume(parser.isComplete());
+    }
+
+    @Benchmark
+    public void incrementalFragments(Blackhole blackhole) throws IOException {
+        IncrementalSentimentParser parser = new IncrementalSentimentParser(jsonFactory,
+                (position, index, sentiment) -> blackhole.consume(sentiment));
+        for (String fragment : fragments) {
+            parser.feed(fragment);
+        }
+        blackhole.consume(parser.isComplete());
+    }
+
+    @Benchmark
+    public void compactWhole(Blackhole blackhole) {
+        CompactSentimentDecoder decoder = new CompactSentimentDecoder(elements,
+                (position, index, sentiment) -> blackhole.consume(sentiment));
+        decoder.feed(compactResponse);
+        decoder.finish();
+        blackhole.consume(decoder.isComplete());
+    }
+}
@@ -0,0 +1,53 @@
+package com.reviewdashboard.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+
+// Per-review bookkeeping after analysis: sentiment counters and the summary reservoir
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentimentCountingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int reviews;
+
+    private String[] texts;
+    private String[] sentiments;
+
+    @Setup
+    public void setUp() {
+        texts = new String[reviews];
+        sentiments = new String[reviews];
+        for (int i = 0; i < reviews; i++) {
+            texts[i] = BenchmarkData.review(i);
+            sentiments[i] = BenchmarkData.sentiment(i);
+        }
+    }
+
+    // As the pipeline does it: every review is counted, each (here single-member) cluster is sampled
+    @Benchmark
+    public Map<String, List<String>> countAndSample() {
+        BatchAnalysisState state = new BatchAnalysisState("bench", new StratifiedReviewSampler(true, 300), 0);
+        for (int i = 0; i < reviews; i++) {
+            state.countAnalyzed(sentiments[i]);
+            state.offerToSample(texts[i], sentiments[i], 1);
+        }
+        return state.getSummarySample();
+    }
+}
@@ -0,0 +1,52 @@
+package com.reviewdashboard.service.impl;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+// Packing reviews into requests and assembling the sentiment prompt
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SentimentPromptBenchmark {
+
+    @Param({"10", "200", "2000"})
+    private int reviews;
+
+    private PromptPacker packer;
+    private List<String> texts;
+
+    @Setup
+    public void setUp() {
+        packer = new PromptPacker(32000, 8192, 16, 2000, "compact");
+        texts = BenchmarkData.reviews(reviews);
+    }
+
+    @Benchmark
+    public String buildPrompt() {
+        return GeminiServiceImpl.buildSentimentPrompt(texts, packer);
+    }
+
+    @Benchmark
+    public String buildCompactPrompt() {
+        return GeminiServiceImpl.buildCompactSentimentPrompt(texts, packer);
+    }
+
+    @Benchmark
+    public List<List<String>> pack() {
+        return packer.pack(texts);
+    }
+}
@@ -25,6 +25,7 @@ public class ReviewDashboardApplication {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("Retry-After")
                         .allowCredentials(true);
             }
         };
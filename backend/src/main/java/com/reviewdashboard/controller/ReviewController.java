@@ -1,13 +1,33 @@
 package com.reviewdashboard.controller;
 
-import com.reviewdashboard.entity.AnalysisSummary;
+import com.reviewdashboard.dto.BatchProgress;
+import com.reviewdashboard.dto.ReviewPage;
+import com.reviewdashboard.dto.SentimentCacheStats;
+import com.reviewdashboard.exception.ResourceNotFoundException;
+import com.reviewdashboard.service.impl.ReviewBrowseService;
+import com.reviewdashboard.service.impl.ReviewExportService;
 import com.reviewdashboard.service.impl.ReviewProcessingService;
+import com.reviewdashboard.service.impl.SentimentCache;
+import com.reviewdashboard.service.impl.SummaryResponseCache;
+import com.reviewdashboard.service.impl.UploadDecoding;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/reviews")
@@ -15,22 +35,105 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewProcessingService processingService;
+    private final SentimentCache sentimentCache;
+    private final ReviewBrowseService browseService;
+    private final ReviewExportService exportService;
 
-    @PostMapping("/upload")
+    // How long browsers may reuse a completed summary before revalidating it
+    @Value("${review.summary-cache.max-age-seconds:3600}")
+    private long summaryMaxAgeSeconds;
+
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
         String batchId = processingService.processFileUpload(file);
         return ResponseEntity.ok(Map.of("batchId", batchId, "message", "File uploaded and analysis started."));
     }
 
+    // CSV as the raw request body, optionally compressed (Content-Encoding gzip or zstd, or an
+    // application/gzip / application/zstd body). Parsed straight off the request stream, without
+    // the temp file a multipart upload is spooled to.
+    @PostMapping(value = "/upload", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            "application/gzip", "application/x-gzip", "application/zstd"})
+    public ResponseEntity<Map<String, String>> uploadStream(HttpServletRequest request) throws IOException {
+        String encoding = UploadDecoding.encodingOf(request.getHeader(HttpHeaders.CONTENT_ENCODING),
+                request.getContentType());
+        String batchId = processingService.processStream(request.getInputStream(),
+                Math.max(0, request.getContentLengthLong()), encoding);
+        return ResponseEntity.ok(Map.of("batchId", batchId, "message", "File uploaded and analysis started."));
+    }
+
+    // Finished summaries never change: they carry an ETag, and a matching If-None-Match gets 304.
+    // A failed one is sent no-cache, so browsers do not hold on to an error page for the full
+    // max-age; revalidating it still only costs a 304.
     @GetMapping("/analysis/{batchId}")
     public ResponseEntity<?> getAnalysis(@PathVariable String batchId) {
-        try {
-            AnalysisSummary summary = processingService.getAnalysisResults(batchId);
-            return ResponseEntity.ok(summary);
-        } catch (com.reviewdashboard.exception.ResourceNotFoundException e) {
-            // If not found, assume it's pending (Simple Fix for Clean Console)
-            return ResponseEntity.status(org.springframework.http.HttpStatus.ACCEPTED)
-                    .body(Map.of("status", "PENDING", "message", "Analysis in progress"));
+        Optional<SummaryResponseCache.CachedSummary> summary = processingService.findSummaryResponse(batchId);
+        if (summary.isPresent()) {
+            CacheControl cacheControl = summary.get().isFailed()
+                    ? CacheControl.noCache()
+                    : CacheControl.maxAge(Duration.ofSeconds(summaryMaxAgeSeconds)).cachePrivate();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(summary.get().getEtag())
+                    .cacheControl(cacheControl)
+                    .body(summary.get().getBody());
         }
+
+        // Not finished yet (or unknown): report pending
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("status", "PENDING", "message", "Analysis in progress"));
+    }
+
+    // Cheap progress check for clients that do not use the stream
+    @GetMapping("/status/{batchId}")
+    public ResponseEntity<BatchProgress> getStatus(@PathVariable String batchId) {
+        return processingService.getProgress(batchId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Batch not found: " + batchId));
+    }
+
+    // Server-sent 'progress' events until the batch completes or fails
+    @GetMapping(value = "/progress/{batchId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProgress(@PathVariable String batchId) {
+        return processingService.streamProgress(batchId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Reviews of a batch in id order; follow nextCursor via 'after'. view=compact leaves out the text.
+    @GetMapping("/browse/{batchId}")
+    public ResponseEntity<ReviewPage> browseReviews(@PathVariable String batchId,
+                                                    @RequestParam(required = false) String sentiment,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestParam(defaultValue = "full") String view) {
+        boolean withText = !"compact".equalsIgnoreCase(view);
+        return ResponseEntity.ok(browseService.browse(batchId, sentiment, after, limit, withText));
+    }
+
+    // All reviews of a batch with their sentiment, streamed as CSV or NDJSON (format=csv|ndjson)
+    @GetMapping("/export/{batchId}")
+    public ResponseEntity<StreamingResponseBody> exportReviews(@PathVariable String batchId,
+                                                               @RequestParam(defaultValue = "csv") String format,
+                                                               @RequestParam(required = false) String sentiment) {
+        // Validated up front: once streaming starts the status can no longer change
+        ReviewExportService.Format exportFormat = exportService.formatOf(format);
+        String label = exportService.sentimentOf(sentiment);
+        if (!exportService.hasReviews(batchId))
+            throw new ResourceNotFoundException("Batch not found: " + batchId);
+
+        StreamingResponseBody body = out -> exportService.export(batchId, label, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("reviews-" + batchId + "." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+
+    @GetMapping("/sentiment-cache/stats")
+    public ResponseEntity<SentimentCacheStats> getSentimentCacheStats() {
+        return ResponseEntity.ok(sentimentCache.stats());
     }
 }
@@ -0,0 +1,46 @@
+package com.reviewdashboard.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Final result of a batch as sent to clients, with pros and cons already parsed
+public class AnalysisSummaryResponse {
+    private String batchId;
+    private String status; // COMPLETED or FAILED
+    private long totalReviews;
+    private long positiveCount;
+    private long neutralCount;
+    private long negativeCount;
+    private String overallSummary;
+    private List<String> topPros;
+    private List<String> topCons;
+    private LocalDateTime analyzedAt;
+
+    public AnalysisSummaryResponse() {}
+
+    public AnalysisSummaryResponse(String batchId, String status, long totalReviews, long positiveCount,
+                                   long neutralCount, long negativeCount, String overallSummary,
+                                   List<String> topPros, List<String> topCons, LocalDateTime analyzedAt) {
+        this.batchId = batchId;
+        this.status = status;
+        this.totalReviews = totalReviews;
+        this.positiveCount = positiveCount;
+        this.neutralCount = neutralCount;
+        this.negativeCount = negativeCount;
+        this.overallSummary = overallSummary;
+        this.topPros = topPros;
+        this.topCons = topCons;
+        this.analyzedAt = analyzedAt;
+    }
+
+    public String getBatchId() { return batchId; }
+    public String getStatus() { return status; }
+    public long getTotalReviews() { return totalReviews; }
+    public long getPositiveCount() { return positiveCount; }
+    public long getNeutralCount() { return neutralCount; }
+    public long getNegativeCount() { return negativeCount; }
+    public String getOverallSummary() { return overallSummary; }
+    public List<String> getTopPros() { return topPros; }
+    public List<String> getTopCons() { return topCons; }
+    public LocalDateTime getAnalyzedAt() { return analyzedAt; }
+}
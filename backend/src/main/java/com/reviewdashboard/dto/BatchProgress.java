@@ -0,0 +1,95 @@
+package com.reviewdashboard.dto;
+
+// Point-in-time view of one upload while it is being processed
+public class BatchProgress {
+    private String batchId;
+    private String state; // INGESTING, ANALYZING, SUMMARIZING, COMPLETED, FAILED
+    private int chunksSubmitted;
+    private int chunksDone;
+    private long reviewsIngested;
+    private long reviewsAnalyzed;
+    private long positiveCount;
+    private long neutralCount;
+    private long negativeCount;
+    private double percentComplete;
+
+    public BatchProgress() {}
+
+    public String getBatchId() { return batchId; }
+    public String getState() { return state; }
+    public int getChunksSubmitted() { return chunksSubmitted; }
+    public int getChunksDone() { return chunksDone; }
+    public long getReviewsIngested() { return reviewsIngested; }
+    public long getReviewsAnalyzed() { return reviewsAnalyzed; }
+    public long getPositiveCount() { return positiveCount; }
+    public long getNeutralCount() { return neutralCount; }
+    public long getNegativeCount() { return negativeCount; }
+    public double getPercentComplete() { return percentComplete; }
+
+    // COMPLETED and FAILED do not change any more
+    public boolean isFinished() {
+        return "COMPLETED".equals(state) || "FAILED".equals(state);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final BatchProgress progress = new BatchProgress();
+
+        public Builder batchId(String batchId) {
+            progress.batchId = batchId;
+            return this;
+        }
+
+        public Builder state(String state) {
+            progress.state = state;
+            return this;
+        }
+
+        public Builder chunksSubmitted(int chunksSubmitted) {
+            progress.chunksSubmitted = chunksSubmitted;
+            return this;
+        }
+
+        public Builder chunksDone(int chunksDone) {
+            progress.chunksDone = chunksDone;
+            return this;
+        }
+
+        public Builder reviewsIngested(long reviewsIngested) {
+            progress.reviewsIngested = reviewsIngested;
+            return this;
+        }
+
+        public Builder reviewsAnalyzed(long reviewsAnalyzed) {
+            progress.reviewsAnalyzed = reviewsAnalyzed;
+            return this;
+        }
+
+        public Builder positiveCount(long positiveCount) {
+            progress.positiveCount = positiveCount;
+            return this;
+        }
+
+        public Builder neutralCount(long neutralCount) {
+            progress.neutralCount = neutralCount;
+            return this;
+        }
+
+        public Builder negativeCount(long negativeCount) {
+            progress.negativeCount = negativeCount;
+            return this;
+        }
+
+        public Builder percentComplete(double percentComplete) {
+            progress.percentComplete = percentComplete;
+            return this;
+        }
+
+        public BatchProgress build() {
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.reviewdashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// One row of the review browser; reviewText is only loaded (and sent) for the full view
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReviewItem {
+    private Long id;
+    private String sentiment;
+    private String productId;
+    private LocalDateTime createdAt;
+    private String reviewText;
+
+    public ReviewItem() {}
+
+    public ReviewItem(Long id, String sentiment, String productId, LocalDateTime createdAt) {
+        this(id, sentiment, productId, createdAt, null);
+    }
+
+    public ReviewItem(Long id, String sentiment, String productId, LocalDateTime createdAt, String reviewText) {
+        this.id = id;
+        this.sentiment = sentiment;
+        this.productId = productId;
+        this.createdAt = createdAt;
+        this.reviewText = reviewText;
+    }
+
+    public Long getId() { return id; }
+    public String getSentiment() { return sentiment; }
+    public String getProductId() { return productId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public String getReviewText() { return reviewText; }
+}
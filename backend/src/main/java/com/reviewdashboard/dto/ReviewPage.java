@@ -0,0 +1,23 @@
+package com.reviewdashboard.dto;
+
+import java.util.List;
+
+// One keyset page; pass nextCursor as 'after' to get the next one (null on the last page)
+public class ReviewPage {
+    private List<ReviewItem> items;
+    private Long nextCursor;
+
+    public ReviewPage() {}
+
+    public ReviewPage(List<ReviewItem> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ReviewItem> getItems() { return items; }
+    public Long getNextCursor() { return nextCursor; }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
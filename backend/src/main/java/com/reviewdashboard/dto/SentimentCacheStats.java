@@ -0,0 +1,32 @@
+package com.reviewdashboard.dto;
+
+public class SentimentCacheStats {
+    private long memoryHits;
+    private long persistentHits;
+    private long misses;
+    private long memoryEntries;
+
+    public SentimentCacheStats() {}
+
+    public SentimentCacheStats(long memoryHits, long persistentHits, long misses, long memoryEntries) {
+        this.memoryHits = memoryHits;
+        this.persistentHits = persistentHits;
+        this.misses = misses;
+        this.memoryEntries = memoryEntries;
+    }
+
+    public long getMemoryHits() { return memoryHits; }
+    public long getPersistentHits() { return persistentHits; }
+    public long getMisses() { return misses; }
+    public long getMemoryEntries() { return memoryEntries; }
+
+    public long getLookups() {
+        return memoryHits + persistentHits + misses;
+    }
+
+    // Share of lookups answered by either tier
+    public double getHitRatio() {
+        long lookups = getLookups();
+        return lookups == 0 ? 0.0 : (double) (memoryHits + persistentHits) / lookups;
+    }
+}
@@ -0,0 +1,103 @@
+package com.reviewdashboard.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Checkpoint for one committed chunk of reviews.
+// Written in the same transaction as the reviews and marked DONE once all of them have a sentiment.
+// In distributed mode nodes claim PENDING chunks under a lease that they renew while analyzing.
+@Entity
+@Table(name = "analysis_chunks", indexes = {
+        @Index(name = "idx_chunk_batch_status", columnList = "batch_id, status"),
+        @Index(name = "idx_chunk_status", columnList = "status, id")
+})
+public class AnalysisChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "batch_id", length = 64, nullable = false)
+    private String batchId;
+
+    // Position of the chunk within the upload
+    private int seq;
+
+    // Id range of the chunk's reviews; other batches' rows in the range are excluded by batch_id
+    private long firstReviewId;
+    private long lastReviewId;
+
+    private int reviewCount;
+
+    // PENDING, CLAIMED or DONE
+    @Column(length = 20, nullable = false)
+    private String status;
+
+    // Node holding the claim and when its lease runs out; null unless CLAIMED
+    @Column(length = 100)
+    private String leaseOwner;
+    private LocalDateTime leaseExpires;
+
+    // Sentiment counts of the chunk, written with the DONE checkpoint
+    @Column(columnDefinition = "integer not null default 0")
+    private int positiveCount;
+    @Column(columnDefinition = "integer not null default 0")
+    private int neutralCount;
+    @Column(columnDefinition = "integer not null default 0")
+    private int negativeCount;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public AnalysisChunk() {}
+
+    public AnalysisChunk(String batchId, int seq, long firstReviewId, long lastReviewId, int reviewCount, String status) {
+        this.batchId = batchId;
+        this.seq = seq;
+        this.firstReviewId = firstReviewId;
+        this.lastReviewId = lastReviewId;
+        this.reviewCount = reviewCount;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public int getSeq() { return seq; }
+    public void setSeq(int seq) { this.seq = seq; }
+
+    public long getFirstReviewId() { return firstReviewId; }
+    public void setFirstReviewId(long firstReviewId) { this.firstReviewId = firstReviewId; }
+
+    public long getLastReviewId() { return lastReviewId; }
+    public void setLastReviewId(long lastReviewId) { this.lastReviewId = lastReviewId; }
+
+    public int getReviewCount() { return reviewCount; }
+    public void setReviewCount(int reviewCount) { this.reviewCount = reviewCount; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public LocalDateTime getLeaseExpires() { return leaseExpires; }
+    public void setLeaseExpires(LocalDateTime leaseExpires) { this.leaseExpires = leaseExpires; }
+
+    public int getPositiveCount() { return positiveCount; }
+    public void setPositiveCount(int positiveCount) { this.positiveCount = positiveCount; }
+
+    public int getNeutralCount() { return neutralCount; }
+    public void setNeutralCount(int neutralCount) { this.neutralCount = neutralCount; }
+
+    public int getNegativeCount() { return negativeCount; }
+    public void setNegativeCount(int negativeCount) { this.negativeCount = negativeCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,58 @@
+package com.reviewdashboard.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Durable record of one upload's analysis, used to resume work after a restart
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+        @Index(name = "idx_job_state", columnList = "state")
+})
+public class AnalysisJob {
+
+    @Id
+    @Column(name = "batch_id", length = 64)
+    private String batchId;
+
+    // INGESTING, ANALYZING, SUMMARIZING, COMPLETED, FAILED
+    @Column(length = 20, nullable = false)
+    private String state;
+
+    // Known once ingestion has finished
+    private int chunkCount;
+    private long totalReviews;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public AnalysisJob() {}
+
+    public AnalysisJob(String batchId, String state) {
+        this.batchId = batchId;
+        this.state = state;
+    }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public int getChunkCount() { return chunkCount; }
+    public void setChunkCount(int chunkCount) { this.chunkCount = chunkCount; }
+
+    public long getTotalReviews() { return totalReviews; }
+    public void setTotalReviews(long totalReviews) { this.totalReviews = totalReviews; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
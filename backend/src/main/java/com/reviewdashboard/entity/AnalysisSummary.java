@@ -75,6 +75,11 @@ public class AnalysisSummary {
     public long getNegativeCount() { return negativeCount; }
     public void setNegativeCount(long negativeCount) { this.negativeCount = negativeCount; }
 
+    // Failure summaries carry the error in place of the summary text
+    public boolean isFailed() {
+        return overallSummary != null && overallSummary.startsWith("FAILED:");
+    }
+
     public LocalDateTime getAnalyzedAt() { return analyzedAt; }
     public void setAnalyzedAt(LocalDateTime analyzedAt) { this.analyzedAt = analyzedAt; }
 
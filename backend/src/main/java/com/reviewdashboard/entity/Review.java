@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "reviews", indexes = {
         @Index(name = "idx_sentiment", columnList = "sentiment"),
-        @Index(name = "idx_batch_id", columnList = "batch_id")
+        @Index(name = "idx_batch_id", columnList = "batch_id"),
+        // Keyset browsing within a batch, with and without a sentiment filter
+        @Index(name = "idx_review_batch_id_id", columnList = "batch_id, id"),
+        @Index(name = "idx_review_batch_sentiment_id", columnList = "batch_id, sentiment, id")
 })
 public class Review {
 
@@ -0,0 +1,43 @@
+package com.reviewdashboard.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// One cached model answer; rows older than the configured TTL are ignored and purged
+@Entity
+@Table(name = "sentiment_cache", indexes = {
+        @Index(name = "idx_sentiment_cache_created_at", columnList = "created_at")
+})
+public class SentimentCacheEntry {
+
+    // SHA-256 (hex) of the normalized review text
+    @Id
+    @Column(length = 64)
+    private String textHash;
+
+    @Column(length = 20, nullable = false)
+    private String sentiment;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public SentimentCacheEntry() {}
+
+    public SentimentCacheEntry(String textHash, String sentiment, LocalDateTime createdAt) {
+        this.textHash = textHash;
+        this.sentiment = sentiment;
+        this.createdAt = createdAt;
+    }
+
+    public String getTextHash() { return textHash; }
+    public void setTextHash(String textHash) { this.textHash = textHash; }
+
+    public String getSentiment() { return sentiment; }
+    public void setSentiment(String sentiment) { this.sentiment = sentiment; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,14 @@
+package com.reviewdashboard.exception;
+
+public class AnalysisCapacityException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AnalysisCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
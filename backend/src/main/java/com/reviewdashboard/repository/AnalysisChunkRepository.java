@@ -0,0 +1,13 @@
+package com.reviewdashboard.repository;
+
+import com.reviewdashboard.entity.AnalysisChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnalysisChunkRepository extends JpaRepository<AnalysisChunk, Long> {
+
+    List<AnalysisChunk> findByBatchIdAndStatusOrderBySeq(String batchId, String status);
+}
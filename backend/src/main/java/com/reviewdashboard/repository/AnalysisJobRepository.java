@@ -0,0 +1,30 @@
+package com.reviewdashboard.repository;
+
+import com.reviewdashboard.entity.AnalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, String> {
+
+    List<AnalysisJob> findByStateIn(Collection<String> states);
+
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.state = :state, j.updatedAt = CURRENT_TIMESTAMP WHERE j.batchId = :batchId")
+    int updateState(String batchId, String state);
+
+    // Keeps an ingesting job from looking abandoned to other nodes
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.updatedAt = CURRENT_TIMESTAMP WHERE j.batchId = :batchId")
+    int touch(String batchId);
+
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.state = 'ANALYZING', j.chunkCount = :chunkCount, j.totalReviews = :totalReviews, " +
+            "j.updatedAt = CURRENT_TIMESTAMP WHERE j.batchId = :batchId")
+    int markIngested(String batchId, int chunkCount, long totalReviews);
+}
@@ -1,21 +1,48 @@
 package com.reviewdashboard.repository;
 
+import com.reviewdashboard.dto.ReviewItem;
 import com.reviewdashboard.entity.Review;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    List<Review> findByBatchId(String batchId);
+    // Keyset pages of one batch: rows after afterId in id order, only the columns of the view.
+    // List return types skip the count query; the Pageable only carries the limit.
+    @Query("SELECT new com.reviewdashboard.dto.ReviewItem(r.id, r.sentiment, r.productId, r.createdAt) " +
+            "FROM Review r WHERE r.batchId = :batchId AND r.id > :afterId ORDER BY r.id")
+    List<ReviewItem> browse(String batchId, long afterId, Pageable limit);
 
-    Page<Review> findByBatchId(String batchId, Pageable pageable);
+    @Query("SELECT new com.reviewdashboard.dto.ReviewItem(r.id, r.sentiment, r.productId, r.createdAt) " +
+            "FROM Review r WHERE r.batchId = :batchId AND r.sentiment = :sentiment AND r.id > :afterId ORDER BY r.id")
+    List<ReviewItem> browseBySentiment(String batchId, String sentiment, long afterId, Pageable limit);
+
+    @Query("SELECT new com.reviewdashboard.dto.ReviewItem(r.id, r.sentiment, r.productId, r.createdAt, r.reviewText) " +
+            "FROM Review r WHERE r.batchId = :batchId AND r.id > :afterId ORDER BY r.id")
+    List<ReviewItem> browseWithText(String batchId, long afterId, Pageable limit);
+
+    @Query("SELECT new com.reviewdashboard.dto.ReviewItem(r.id, r.sentiment, r.productId, r.createdAt, r.reviewText) " +
+            "FROM Review r WHERE r.batchId = :batchId AND r.sentiment = :sentiment AND r.id > :afterId ORDER BY r.id")
+    List<ReviewItem> browseWithTextBySentiment(String batchId, String sentiment, long afterId, Pageable limit);
+
+    boolean existsByBatchId(String batchId);
 
     @Query("SELECT r.sentiment, COUNT(r) FROM Review r WHERE r.batchId = :batchId GROUP BY r.sentiment")
     List<Object[]> countSentimentByBatchId(String batchId);
+
+    // Unanalyzed reviews of one chunk, for resuming after a restart
+    @Query("SELECT r FROM Review r WHERE r.batchId = :batchId AND r.id BETWEEN :firstId AND :lastId " +
+            "AND r.sentiment = 'PENDING' ORDER BY r.id")
+    List<Review> findPendingInRange(String batchId, long firstId, long lastId);
+
+    // Random analyzed reviews (text, sentiment) to rebuild a summary sample after a restart
+    @Query(value = "SELECT review_text, sentiment FROM reviews WHERE batch_id = :batchId " +
+            "AND sentiment IN (:sentiments) ORDER BY random() LIMIT :limit", nativeQuery = true)
+    List<Object[]> sampleAnalyzed(String batchId, Collection<String> sentiments, int limit);
 }
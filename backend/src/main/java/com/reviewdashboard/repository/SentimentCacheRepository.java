@@ -0,0 +1,16 @@
+package com.reviewdashboard.repository;
+
+import com.reviewdashboard.entity.SentimentCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SentimentCacheRepository extends JpaRepository<SentimentCacheEntry, String> {
+
+    // Entries for the given hashes written after the cutoff
+    List<SentimentCacheEntry> findByTextHashInAndCreatedAtAfter(Collection<String> textHashes, LocalDateTime cutoff);
+}
@@ -0,0 +1,80 @@
+package com.reviewdashboard.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// AIMD limit on concurrent Gemini calls.
+// The limit grows by about one per round of healthy calls and is cut multiplicatively on a 429.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long healthyLatencyMs;
+    private final double backoffRatio;
+    private final long decreaseCooldownMs;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseAt;
+
+    public AdaptiveConcurrencyLimiter(@Value("${gemini.concurrency.initial:4}") int initialLimit,
+                                      @Value("${gemini.concurrency.min:1}") int minLimit,
+                                      @Value("${gemini.concurrency.max:32}") int maxLimit,
+                                      @Value("${gemini.concurrency.healthy-latency-ms:60000}") long healthyLatencyMs,
+                                      @Value("${gemini.concurrency.backoff-ratio:0.5}") double backoffRatio,
+                                      @Value("${gemini.concurrency.decrease-cooldown-ms:1000}") long decreaseCooldownMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.healthyLatencyMs = healthyLatencyMs;
+        this.backoffRatio = backoffRatio;
+        this.decreaseCooldownMs = decreaseCooldownMs;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Blocks until a call may start
+    public synchronized void acquire() throws InterruptedException {
+        while (inFlight >= (int) limit) {
+            wait();
+        }
+        inFlight++;
+    }
+
+    // Call finished normally; grow the limit if it was fast enough
+    public synchronized void onSuccess(long latencyMs) {
+        inFlight--;
+        if (latencyMs <= healthyLatencyMs && inFlight + 1 >= (int) limit) {
+            // Only grow when the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        notifyAll();
+    }
+
+    // Call was rate limited; shrink the limit once per burst of 429s
+    public synchronized void onThrottled() {
+        inFlight--;
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseAt >= decreaseCooldownMs) {
+            double previous = limit;
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseAt = now;
+            log.warn("Gemini concurrency limit reduced from {} to {}", (int) previous, (int) limit);
+        }
+        notifyAll();
+    }
+
+    // Call failed for another reason; the limit is left unchanged
+    public synchronized void onFailure() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,243 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.entity.AnalysisChunk;
+import com.reviewdashboard.entity.AnalysisJob;
+import com.reviewdashboard.entity.Review;
+import com.reviewdashboard.repository.AnalysisChunkRepository;
+import com.reviewdashboard.repository.AnalysisJobRepository;
+import com.reviewdashboard.repository.ReviewRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Persistent job and chunk checkpoints, so analysis can resume after a restart.
+// Also the coordination point between nodes: chunks are claimed under a lease with
+// FOR UPDATE SKIP LOCKED, and the move to SUMMARIZING is a conditional update only one node wins.
+@Component
+public class AnalysisJobStore {
+
+    static final String CHUNK_PENDING = "PENDING";
+    static final String CHUNK_CLAIMED = "CLAIMED";
+    static final String CHUNK_DONE = "DONE";
+
+    // Oldest claimable chunks of running jobs: never claimed, or whose owner stopped renewing the lease.
+    // Locked rows are skipped, so concurrent claims on other nodes never wait on each other.
+    private static final String CLAIM_SQL =
+            "UPDATE analysis_chunks c SET status = 'CLAIMED', lease_owner = ?, " +
+            "lease_expires = now() + ? * interval '1 second', updated_at = now() " +
+            "WHERE c.id IN (SELECT k.id FROM analysis_chunks k " +
+            "  WHERE (k.status = 'PENDING' OR (k.status = 'CLAIMED' AND k.lease_expires < now())) " +
+            "  AND EXISTS (SELECT 1 FROM analysis_jobs j WHERE j.batch_id = k.batch_id " +
+            "    AND j.state IN ('INGESTING', 'ANALYZING')) " +
+            "  ORDER BY k.id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING c.id, c.batch_id, c.seq, c.first_review_id, c.last_review_id, c.review_count";
+
+    private static final String RENEW_SQL =
+            "UPDATE analysis_chunks SET lease_expires = now() + ? * interval '1 second' " +
+            "WHERE lease_owner = ? AND status = 'CLAIMED'";
+
+    private static final String RELEASE_SQL =
+            "UPDATE analysis_chunks SET status = 'PENDING', lease_owner = NULL, lease_expires = NULL, updated_at = now() " +
+            "WHERE lease_owner = ? AND status = 'CLAIMED'";
+
+    // DONE checkpoint with the chunk's sentiment counts, read through the reviews id range
+    private static final String COMPLETE_SQL =
+            "UPDATE analysis_chunks c SET status = 'DONE', lease_owner = NULL, lease_expires = NULL, updated_at = now(), " +
+            "positive_count = s.positive, neutral_count = s.neutral, negative_count = s.negative " +
+            "FROM (SELECT count(*) FILTER (WHERE r.sentiment = 'POSITIVE') AS positive, " +
+            "             count(*) FILTER (WHERE r.sentiment = 'NEUTRAL') AS neutral, " +
+            "             count(*) FILTER (WHERE r.sentiment = 'NEGATIVE') AS negative " +
+            "      FROM analysis_chunks k JOIN reviews r ON r.batch_id = k.batch_id " +
+            "        AND r.id BETWEEN k.first_review_id AND k.last_review_id " +
+            "      WHERE k.id = ?) s " +
+            "WHERE c.id = ?";
+
+    // Only matches for the node that completes the last chunk after ingestion ended; a concurrent
+    // update re-checks the state once the winner commits and matches nothing
+    private static final String START_SUMMARY_SQL =
+            "UPDATE analysis_jobs SET state = 'SUMMARIZING', updated_at = now() " +
+            "WHERE batch_id = ? AND state = 'ANALYZING' " +
+            "AND NOT EXISTS (SELECT 1 FROM analysis_chunks WHERE batch_id = ? AND status <> 'DONE')";
+
+    private static final String SUMMARIZABLE_SQL =
+            "SELECT j.batch_id FROM analysis_jobs j WHERE j.state = 'ANALYZING' " +
+            "AND NOT EXISTS (SELECT 1 FROM analysis_chunks c WHERE c.batch_id = j.batch_id AND c.status <> 'DONE')";
+
+    private static final String CHUNK_TOTALS_SQL =
+            "SELECT count(*), count(*) FILTER (WHERE status = 'DONE'), coalesce(sum(positive_count), 0), " +
+            "coalesce(sum(neutral_count), 0), coalesce(sum(negative_count), 0) " +
+            "FROM analysis_chunks WHERE batch_id = ?";
+
+    // Uploads whose node stopped writing chunks, e.g. because it crashed
+    private static final String FAIL_ABANDONED_SQL =
+            "UPDATE analysis_jobs SET state = 'FAILED', updated_at = now() " +
+            "WHERE state = 'INGESTING' AND updated_at < now() - ? * interval '1 second' " +
+            "RETURNING batch_id";
+
+    // Takes over one summary whose node stopped renewing it
+    private static final String CLAIM_STALE_SUMMARY_SQL =
+            "UPDATE analysis_jobs SET updated_at = now() " +
+            "WHERE batch_id IN (SELECT batch_id FROM analysis_jobs " +
+            "  WHERE state = 'SUMMARIZING' AND updated_at < now() - ? * interval '1 second' " +
+            "  LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING batch_id";
+
+    // Jobs that still have work left when the application starts
+    private static final List<String> UNFINISHED_STATES = List.of(
+            BatchAnalysisState.Phase.INGESTING.name(),
+            BatchAnalysisState.Phase.ANALYZING.name(),
+            BatchAnalysisState.Phase.SUMMARIZING.name());
+
+    private final ReviewBulkLoader reviewLoader;
+    private final AnalysisJobRepository jobRepository;
+    private final AnalysisChunkRepository chunkRepository;
+    private final ReviewRepository reviewRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnalysisJobStore(ReviewBulkLoader reviewLoader,
+                            AnalysisJobRepository jobRepository,
+                            AnalysisChunkRepository chunkRepository,
+                            ReviewRepository reviewRepository,
+                            JdbcTemplate jdbcTemplate) {
+        this.reviewLoader = reviewLoader;
+        this.jobRepository = jobRepository;
+        this.chunkRepository = chunkRepository;
+        this.reviewRepository = reviewRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void createJob(String batchId) {
+        jobRepository.save(new AnalysisJob(batchId, BatchAnalysisState.Phase.INGESTING.name()));
+    }
+
+    // Inserts the reviews and their checkpoint in one transaction; ids are set on the reviews
+    @Transactional
+    public AnalysisChunk insertChunk(String batchId, int seq, List<Review> reviews) {
+        reviewLoader.insert(reviews);
+
+        long firstId = Long.MAX_VALUE;
+        long lastId = Long.MIN_VALUE;
+        for (Review review : reviews) {
+            firstId = Math.min(firstId, review.getId());
+            lastId = Math.max(lastId, review.getId());
+        }
+        jobRepository.touch(batchId);
+        return chunkRepository.save(new AnalysisChunk(batchId, seq, firstId, lastId, reviews.size(), CHUNK_PENDING));
+    }
+
+    @Transactional
+    public void markIngested(String batchId, int chunkCount, long totalReviews) {
+        jobRepository.markIngested(batchId, chunkCount, totalReviews);
+    }
+
+    @Transactional
+    public void updateState(String batchId, BatchAnalysisState.Phase phase) {
+        jobRepository.updateState(batchId, phase.name());
+    }
+
+    // Checkpoint: every review of the chunk has its sentiment persisted
+    public void markChunkDone(Long chunkId) {
+        jdbcTemplate.update(COMPLETE_SQL, chunkId, chunkId);
+    }
+
+    // Same checkpoint for a claimed chunk; false if the lease was lost to another node meanwhile
+    public boolean completeClaimedChunk(Long chunkId, String owner) {
+        return jdbcTemplate.update(COMPLETE_SQL + " AND c.lease_owner = ? AND c.status = 'CLAIMED'",
+                chunkId, chunkId, owner) == 1;
+    }
+
+    // Claims up to limit chunks for this node; each statement commits on its own
+    public List<AnalysisChunk> claimChunks(String owner, int limit, long leaseSeconds) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> {
+            AnalysisChunk chunk = new AnalysisChunk(rs.getString("batch_id"), rs.getInt("seq"),
+                    rs.getLong("first_review_id"), rs.getLong("last_review_id"),
+                    rs.getInt("review_count"), CHUNK_CLAIMED);
+            chunk.setId(rs.getLong("id"));
+            chunk.setLeaseOwner(owner);
+            return chunk;
+        }, owner, leaseSeconds, limit);
+    }
+
+    // Heartbeat: extends the lease of every chunk this node still holds
+    public int renewLeases(String owner, long leaseSeconds) {
+        return jdbcTemplate.update(RENEW_SQL, leaseSeconds, owner);
+    }
+
+    // Hands the node's chunks back, e.g. on shutdown, instead of waiting for the leases to expire
+    public int releaseChunks(String owner) {
+        return jdbcTemplate.update(RELEASE_SQL, owner);
+    }
+
+    public void releaseChunk(Long chunkId, String owner) {
+        jdbcTemplate.update(RELEASE_SQL + " AND id = ?", owner, chunkId);
+    }
+
+    // True for exactly one caller, once the job is ingested and all its chunks are DONE
+    public boolean tryStartSummary(String batchId) {
+        return jdbcTemplate.update(START_SUMMARY_SQL, batchId, batchId) == 1;
+    }
+
+    public List<String> findSummarizable() {
+        return jdbcTemplate.queryForList(SUMMARIZABLE_SQL, String.class);
+    }
+
+    // Marks INGESTING jobs not written to for staleSeconds as FAILED and returns them
+    public List<String> failAbandonedIngests(long staleSeconds) {
+        return jdbcTemplate.queryForList(FAIL_ABANDONED_SQL, String.class, staleSeconds);
+    }
+
+    public Optional<String> claimStaleSummary(long staleSeconds) {
+        return jdbcTemplate.queryForList(CLAIM_STALE_SUMMARY_SQL, String.class, staleSeconds)
+                .stream().findFirst();
+    }
+
+    // Keeps summaries in progress on this node from being taken over
+    @Transactional
+    public void touchJobs(Collection<String> batchIds) {
+        batchIds.forEach(jobRepository::touch);
+    }
+
+    public ChunkTotals chunkTotals(String batchId) {
+        return jdbcTemplate.queryForObject(CHUNK_TOTALS_SQL, (rs, rowNum) -> new ChunkTotals(
+                rs.getInt(1), rs.getInt(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)), batchId);
+    }
+
+    public Optional<AnalysisJob> findJob(String batchId) {
+        return jobRepository.findById(batchId);
+    }
+
+    public List<AnalysisJob> findUnfinished() {
+        return jobRepository.findByStateIn(UNFINISHED_STATES);
+    }
+
+    public List<AnalysisChunk> findPendingChunks(String batchId) {
+        return chunkRepository.findByBatchIdAndStatusOrderBySeq(batchId, CHUNK_PENDING);
+    }
+
+    // Reviews of the chunk that were not analyzed before the restart
+    public List<Review> findPendingReviews(AnalysisChunk chunk) {
+        return reviewRepository.findPendingInRange(chunk.getBatchId(), chunk.getFirstReviewId(), chunk.getLastReviewId());
+    }
+
+    // Chunk progress of one batch, summed over its checkpoints
+    static final class ChunkTotals {
+        final int chunks;
+        final int chunksDone;
+        final long positive;
+        final long neutral;
+        final long negative;
+
+        ChunkTotals(int chunks, int chunksDone, long positive, long neutral, long negative) {
+            this.chunks = chunks;
+            this.chunksDone = chunksDone;
+            this.positive = positive;
+            this.neutral = neutral;
+            this.negative = negative;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.entity.AnalysisJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Resumes analysis jobs left unfinished by a previous run, once the application is up.
+// In distributed mode ChunkClaimWorker takes care of this through expired leases instead.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class AnalysisRecovery {
+
+    private final AnalysisJobStore jobStore;
+    private final ReviewProcessingService processingService;
+    private final boolean enabled;
+
+    public AnalysisRecovery(AnalysisJobStore jobStore,
+                            ReviewProcessingService processingService,
+                            @Value("${review.recovery.enabled:true}") boolean enabled,
+                            @Value("${review.distributed.enabled:false}") boolean distributed) {
+        this.jobStore = jobStore;
+        this.processingService = processingService;
+        // Other nodes may be working on the same jobs right now
+        this.enabled = enabled && !distributed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled)
+            return;
+
+        List<AnalysisJob> jobs = jobStore.findUnfinished();
+        if (jobs.isEmpty())
+            return;
+
+        log.info("Recovering {} unfinished analysis jobs", jobs.size());
+
+        // Jobs wait for free batch slots, so keep this off the startup thread
+        Thread recovery = new Thread(() -> {
+            for (AnalysisJob job : jobs) {
+                try {
+                    processingService.resumeBatch(job);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error("Failed to resume batch: {}", job.getBatchId(), e);
+                }
+            }
+        }, "batch-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+    }
+}
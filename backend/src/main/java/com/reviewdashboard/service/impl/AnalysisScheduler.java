@@ -0,0 +1,94 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.exception.AnalysisCapacityException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs analysis work on its own bounded pool, away from the ForkJoin common pool.
+// Uploads are admitted per batch; once every slot is taken new uploads are rejected.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class AnalysisScheduler {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore batchSlots;
+    private final int maxActiveBatches;
+    private final long retryAfterSeconds;
+
+    public AnalysisScheduler(@Value("${analysis.executor.workers:16}") int workers,
+                             @Value("${analysis.max-active-batches:16}") int maxActiveBatches,
+                             @Value("${review.ingest.max-pending-chunks:16}") int maxPendingChunks,
+                             @Value("${analysis.retry-after-seconds:30}") long retryAfterSeconds) {
+        this.maxActiveBatches = maxActiveBatches;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.batchSlots = new Semaphore(maxActiveBatches);
+
+        // Every admitted batch queues at most its pending chunks plus the final summary,
+        // so an admitted batch never sees a rejected task
+        int queueCapacity = maxActiveBatches * (maxPendingChunks + 1);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "analysis-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Analysis scheduler: {} workers, {} active batches, queue capacity {}",
+                workers, maxActiveBatches, queueCapacity);
+    }
+
+    // Reserves a batch slot or rejects the upload with a retry hint
+    public void admit() {
+        if (!batchSlots.tryAcquire()) {
+            throw new AnalysisCapacityException(
+                    "Analysis capacity reached (" + maxActiveBatches + " active batches). Please retry later.",
+                    retryAfterSeconds);
+        }
+    }
+
+    // Blocks until a batch slot is free; for work that cannot be rejected, such as recovery
+    public void admitWaiting() throws InterruptedException {
+        batchSlots.acquire();
+    }
+
+    // Frees the slot taken by admit()
+    public void release() {
+        batchSlots.release();
+    }
+
+    public CompletableFuture<Void> submit(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveBatches() {
+        return maxActiveBatches - batchSlots.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
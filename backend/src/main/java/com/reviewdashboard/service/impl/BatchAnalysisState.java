@@ -0,0 +1,212 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.BatchProgress;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Running totals for one upload while its chunks are being analyzed
+class BatchAnalysisState {
+
+    enum Phase { INGESTING, ANALYZING, SUMMARIZING, COMPLETED, FAILED }
+
+    private final String batchId;
+
+    // Upload start, for batch duration and throughput
+    private long startedAtNanos = System.nanoTime();
+
+    // Sample of analyzed reviews used as input for the summary
+    private final StratifiedReviewSampler summarySampler;
+
+    // Labels of cluster representatives seen so far, so later chunks reuse them; null if not kept
+    private SimHashIndex<String> labelledClusters;
+
+    // One future per chunk handed to analysis
+    private final List<CompletableFuture<Void>> chunkFutures = new ArrayList<>();
+
+    private final AtomicInteger chunksSubmitted = new AtomicInteger();
+    private final AtomicInteger chunksDone = new AtomicInteger();
+
+    private volatile Phase phase = Phase.INGESTING;
+
+    private final AtomicLong totalReviews = new AtomicLong();
+
+    // Upload size if known (0 otherwise) and bytes parsed so far, to extrapolate the review count
+    private final long expectedBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong positiveCount = new AtomicLong();
+    private final AtomicLong neutralCount = new AtomicLong();
+    private final AtomicLong negativeCount = new AtomicLong();
+
+    BatchAnalysisState(String batchId, StratifiedReviewSampler summarySampler, long expectedBytes) {
+        this.batchId = batchId;
+        this.summarySampler = summarySampler;
+        this.expectedBytes = Math.max(0, expectedBytes);
+    }
+
+    String getBatchId() {
+        return batchId;
+    }
+
+    long getStartedAtNanos() {
+        return startedAtNanos;
+    }
+
+    // Counts one analyzed review without offering it to the sample
+    void countAnalyzed(String sentiment) {
+        countSentiment(sentiment);
+    }
+
+    // Offers a cluster representative standing for weight reviews
+    void offerToSample(String text, String sentiment, int weight) {
+        summarySampler.offer(text, sentiment, weight);
+    }
+
+    void keepClusterLabels(SimHashIndex<String> index) {
+        this.labelledClusters = index;
+    }
+
+    // Label of an earlier cluster near this fingerprint, or null
+    String findClusterLabel(long fingerprint, String guard) {
+        if (labelledClusters == null)
+            return null;
+        synchronized (labelledClusters) {
+            return labelledClusters.findNear(fingerprint, guard);
+        }
+    }
+
+    void rememberClusterLabel(long fingerprint, String guard, String sentiment) {
+        if (labelledClusters == null)
+            return;
+        synchronized (labelledClusters) {
+            labelledClusters.add(fingerprint, guard, sentiment);
+        }
+    }
+
+    // Counts of reviews analyzed before a restart
+    void restoreCounts(long positive, long neutral, long negative) {
+        positiveCount.addAndGet(positive);
+        neutralCount.addAndGet(neutral);
+        negativeCount.addAndGet(negative);
+    }
+
+    // Progress read from the chunk checkpoints, for batches analyzed by several nodes
+    void restoreProgress(int chunks, int done, long positive, long neutral, long negative) {
+        chunksSubmitted.set(chunks);
+        chunksDone.set(done);
+        positiveCount.set(positive);
+        neutralCount.set(neutral);
+        negativeCount.set(negative);
+    }
+
+    // For a batch started before this state was created, e.g. on another node
+    void restoreElapsed(Duration elapsed) {
+        startedAtNanos = System.nanoTime() - elapsed.toNanos();
+    }
+
+    void offerToSample(String text, String sentiment) {
+        summarySampler.offer(text, sentiment);
+    }
+
+    Map<String, List<String>> getSummarySample() {
+        return summarySampler.sample();
+    }
+
+    // Called from the ingesting thread only
+    void addChunkFuture(CompletableFuture<Void> future) {
+        chunkFutures.add(future);
+        chunksSubmitted.incrementAndGet();
+        future.whenComplete((ignored, error) -> chunksDone.incrementAndGet());
+    }
+
+    CompletableFuture<Void> allChunksDone() {
+        return CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture[0]));
+    }
+
+    void addIngested(long count) {
+        totalReviews.addAndGet(count);
+    }
+
+    // Review count recorded elsewhere; never lowers the local count
+    void raiseIngested(long count) {
+        totalReviews.accumulateAndGet(count, Math::max);
+    }
+
+    long getTotalReviews() {
+        return totalReviews.get();
+    }
+
+    void addBytesRead(long count) {
+        bytesRead.addAndGet(count);
+    }
+
+    Phase getPhase() {
+        return phase;
+    }
+
+    void setPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    // Moves forward only, and never away from COMPLETED or FAILED
+    synchronized void advancePhase(Phase next) {
+        if (!isFinal() && next.ordinal() > phase.ordinal()) {
+            phase = next;
+        }
+    }
+
+    boolean isFinal() {
+        return phase == Phase.COMPLETED || phase == Phase.FAILED;
+    }
+
+    private void countSentiment(String sentiment) {
+        if ("POSITIVE".equals(sentiment)) {
+            positiveCount.incrementAndGet();
+        } else if ("NEGATIVE".equals(sentiment)) {
+            negativeCount.incrementAndGet();
+        } else if ("NEUTRAL".equals(sentiment)) {
+            neutralCount.incrementAndGet();
+        }
+    }
+
+    BatchProgress snapshot() {
+        long positive = positiveCount.get();
+        long neutral = neutralCount.get();
+        long negative = negativeCount.get();
+        long analyzed = positive + neutral + negative;
+        return BatchProgress.builder()
+                .batchId(batchId)
+                .state(phase.name())
+                .chunksSubmitted(chunksSubmitted.get())
+                .chunksDone(chunksDone.get())
+                .reviewsIngested(totalReviews.get())
+                .reviewsAnalyzed(analyzed)
+                .positiveCount(positive)
+                .neutralCount(neutral)
+                .negativeCount(negative)
+                .percentComplete(percentComplete(analyzed))
+                .build();
+    }
+
+    // Share of reviews analyzed. While the file is still being read, the total is extrapolated
+    // from the bytes parsed; 100 is only reported once the summary is saved.
+    private double percentComplete(long analyzed) {
+        if (phase == Phase.COMPLETED)
+            return 100.0;
+
+        long ingested = totalReviews.get();
+        double expectedReviews = ingested;
+        long read = bytesRead.get();
+        if (phase == Phase.INGESTING && expectedBytes > 0 && read > 0) {
+            expectedReviews = Math.max(ingested, (double) ingested * expectedBytes / read);
+        }
+        if (expectedReviews == 0)
+            return 0.0;
+        return Math.min(99.0, Math.floor(1000.0 * analyzed / expectedReviews) / 10.0);
+    }
+}
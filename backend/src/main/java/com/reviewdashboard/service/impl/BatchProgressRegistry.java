@@ -0,0 +1,245 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.BatchProgress;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// In-memory progress of running uploads, pushed to SSE subscribers.
+// Subscribers get at most one update per push interval and only when something changed,
+// however many tabs are open; finished batches stay visible for the retention period.
+// Batches analyzed by several nodes are tracked with a refresher that reloads their state
+// from the job table at most once per push interval. Such a batch may finish elsewhere without
+// this node noticing, so it is forgotten once nobody has asked about it for the retention
+// period; the next request tracks it again from the job table.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class BatchProgressRegistry {
+
+    private final Map<String, Entry> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final long pushIntervalNanos;
+    private final long retentionMinutes;
+    private final long retentionNanos;
+    private final long sseTimeoutMs;
+
+    public BatchProgressRegistry(@Value("${review.progress.push-interval-ms:1000}") long pushIntervalMs,
+                                 @Value("${review.progress.retention-minutes:10}") long retentionMinutes,
+                                 @Value("${review.progress.sse-timeout-ms:1800000}") long sseTimeoutMs) {
+        this.pushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pushIntervalMs);
+        this.retentionMinutes = retentionMinutes;
+        this.retentionNanos = TimeUnit.MINUTES.toNanos(retentionMinutes);
+        this.sseTimeoutMs = sseTimeoutMs;
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "progress-push");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleWithFixedDelay(this::pushUpdates, pushIntervalMs, pushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void register(BatchAnalysisState state) {
+        batches.put(state.getBatchId(), new Entry(state, null));
+    }
+
+    // Tracks a batch whose progress is kept up to date by the refresher; an existing entry wins
+    void register(BatchAnalysisState state, Consumer<BatchAnalysisState> refresher) {
+        Entry entry = new Entry(state, refresher);
+        if (batches.putIfAbsent(state.getBatchId(), entry) == null) {
+            refresh(entry);
+        }
+    }
+
+    // Forgets a batch that never started, closing any stream opened on it
+    synchronized void unregister(String batchId) {
+        Entry entry = batches.remove(batchId);
+        if (entry != null) {
+            entry.closed = true;
+            entry.emitters.forEach(SseEmitter::complete);
+            entry.emitters.clear();
+        }
+    }
+
+    // Moves the batch to COMPLETED or FAILED, sends the final state and closes its streams
+    void finish(BatchAnalysisState state, BatchAnalysisState.Phase phase) {
+        state.setPhase(phase);
+        Entry entry = batches.get(state.getBatchId());
+        if (entry == null)
+            return;
+
+        // The summary may run on a state other than the tracked one
+        if (entry.state != state) {
+            entry.state.advancePhase(phase);
+            refresh(entry);
+        }
+        close(entry);
+    }
+
+    public Optional<BatchProgress> find(String batchId) {
+        Entry entry = batches.get(batchId);
+        if (entry == null)
+            return Optional.empty();
+
+        entry.usedAtNanos = System.nanoTime();
+        refreshIfDue(entry);
+        return Optional.of(entry.state.snapshot());
+    }
+
+    // Opens a stream that starts with the current state; empty if the batch is not tracked
+    public Optional<SseEmitter> subscribe(String batchId) {
+        Entry entry = batches.get(batchId);
+        if (entry == null)
+            return Optional.empty();
+
+        entry.usedAtNanos = System.nanoTime();
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        emitter.onCompletion(() -> entry.emitters.remove(emitter));
+        emitter.onTimeout(() -> entry.emitters.remove(emitter));
+        emitter.onError(e -> entry.emitters.remove(emitter));
+
+        // Same lock as close(), so a stream is either added before the final state goes out
+        // or sees the entry closed and ends right after the snapshot
+        synchronized (this) {
+            BatchProgress current = entry.state.snapshot();
+            if (!sendTo(emitter, current) || current.isFinished() || entry.closed) {
+                emitter.complete();
+                return Optional.of(emitter);
+            }
+            entry.emitters.add(emitter);
+        }
+        return Optional.of(emitter);
+    }
+
+    // Stream holding a single, final state for batches that are no longer tracked
+    public SseEmitter finishedStream(BatchProgress progress) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        sendTo(emitter, progress);
+        emitter.complete();
+        return emitter;
+    }
+
+    private void pushUpdates() {
+        try {
+            long now = System.nanoTime();
+            for (Entry entry : batches.values()) {
+                if (entry.emitters.isEmpty()) {
+                    expireIfUnused(entry, now);
+                    continue;
+                }
+
+                refreshIfDue(entry);
+                BatchProgress current = entry.state.snapshot();
+                if (!sameProgress(entry.lastSent, current)) {
+                    send(entry, current);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Progress push failed", e);
+        }
+    }
+
+    // Drops a batch tracked through the job table once nobody has followed it for the
+    // retention period; locally run batches are dropped retention after they finish instead
+    private void expireIfUnused(Entry entry, long now) {
+        if (entry.refresher != null && !entry.closed && now - entry.usedAtNanos >= retentionNanos) {
+            batches.remove(entry.state.getBatchId(), entry);
+        }
+    }
+
+    private void refreshIfDue(Entry entry) {
+        if (entry.refresher != null && !entry.closed
+                && System.nanoTime() - entry.refreshedAtNanos >= pushIntervalNanos) {
+            refresh(entry);
+        }
+        // Finished on another node
+        if (entry.state.isFinal()) {
+            close(entry);
+        }
+    }
+
+    private void refresh(Entry entry) {
+        if (entry.refresher == null)
+            return;
+
+        entry.refreshedAtNanos = System.nanoTime();
+        try {
+            entry.refresher.accept(entry.state);
+        } catch (Exception e) {
+            log.warn("Progress refresh failed for batch: {}", entry.state.getBatchId(), e);
+        }
+    }
+
+    private synchronized void close(Entry entry) {
+        if (entry.closed)
+            return;
+
+        entry.closed = true;
+        send(entry, entry.state.snapshot());
+        entry.emitters.forEach(SseEmitter::complete);
+        entry.emitters.clear();
+        String batchId = entry.state.getBatchId();
+        ticker.schedule(() -> batches.remove(batchId, entry), retentionMinutes, TimeUnit.MINUTES);
+    }
+
+    private void send(Entry entry, BatchProgress progress) {
+        entry.lastSent = progress;
+        for (SseEmitter emitter : entry.emitters) {
+            if (!sendTo(emitter, progress)) {
+                entry.emitters.remove(emitter);
+            }
+        }
+    }
+
+    private static boolean sendTo(SseEmitter emitter, BatchProgress progress) {
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(progress));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            return false;
+        }
+    }
+
+    private static boolean sameProgress(BatchProgress a, BatchProgress b) {
+        return a != null
+                && a.getState().equals(b.getState())
+                && a.getChunksDone() == b.getChunksDone()
+                && a.getReviewsIngested() == b.getReviewsIngested()
+                && a.getReviewsAnalyzed() == b.getReviewsAnalyzed();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        batches.values().forEach(entry -> entry.emitters.forEach(SseEmitter::complete));
+    }
+
+    private static class Entry {
+        final BatchAnalysisState state;
+        final Consumer<BatchAnalysisState> refresher;
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        volatile BatchProgress lastSent;
+        volatile long refreshedAtNanos;
+        // Last find or subscribe
+        volatile long usedAtNanos = System.nanoTime();
+        volatile boolean closed;
+
+        Entry(BatchAnalysisState state, Consumer<BatchAnalysisState> refresher) {
+            this.state = state;
+            this.refresher = refresher;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.entity.AnalysisChunk;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Pulls pending chunks of any node's uploads from analysis_chunks and analyzes them here.
+// Claims are leases renewed by a heartbeat; chunks of a node that stops renewing are claimed
+// again by the others, and jobs it left half-way are failed or summarized by whoever sees them first.
+@lombok.extern.slf4j.Slf4j
+@Component
+@ConditionalOnProperty(name = "review.distributed.enabled", havingValue = "true")
+public class ChunkClaimWorker {
+
+    private final AnalysisJobStore jobStore;
+    private final ReviewProcessingService processingService;
+    private final AnalysisScheduler analysisScheduler;
+    private final String nodeId;
+    private final int maxClaimedChunks;
+    private final long pollIntervalMs;
+    private final long leaseSeconds;
+    private final long staleJobSeconds;
+    private final long janitorIntervalMs;
+
+    // Chunks claimed by this node and not yet checkpointed
+    private final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService timer;
+
+    public ChunkClaimWorker(AnalysisJobStore jobStore,
+                            ReviewProcessingService processingService,
+                            AnalysisScheduler analysisScheduler,
+                            @Value("${review.distributed.node-id:}") String nodeId,
+                            @Value("${review.distributed.max-claimed-chunks:16}") int maxClaimedChunks,
+                            @Value("${review.distributed.poll-interval-ms:500}") long pollIntervalMs,
+                            @Value("${review.distributed.lease-seconds:60}") long leaseSeconds,
+                            @Value("${review.distributed.stale-job-seconds:120}") long staleJobSeconds,
+                            @Value("${review.distributed.janitor-interval-ms:10000}") long janitorIntervalMs) {
+        this.jobStore = jobStore;
+        this.processingService = processingService;
+        this.analysisScheduler = analysisScheduler;
+        // A fresh id per start, so a restarted node never mistakes old leases for its own
+        this.nodeId = (nodeId == null || nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId)
+                + "/" + UUID.randomUUID().toString().substring(0, 8);
+        this.maxClaimedChunks = maxClaimedChunks;
+        this.pollIntervalMs = pollIntervalMs;
+        this.leaseSeconds = leaseSeconds;
+        this.staleJobSeconds = staleJobSeconds;
+        this.janitorIntervalMs = janitorIntervalMs;
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chunk-claims");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        log.info("Claiming analysis chunks as {} (up to {} at a time, {}s lease)", nodeId, maxClaimedChunks, leaseSeconds);
+
+        long heartbeatMs = Math.max(1000, TimeUnit.SECONDS.toMillis(leaseSeconds) / 3);
+        timer.scheduleWithFixedDelay(() -> run("claim", this::claimChunks), 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(() -> run("heartbeat", this::heartbeat), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(() -> run("janitor", this::recoverStaleJobs),
+                janitorIntervalMs, janitorIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Claims as many chunks as this node has room for and hands them to the analysis pool
+    private void claimChunks() {
+        int free = maxClaimedChunks - claimed.size();
+        if (free <= 0)
+            return;
+
+        List<AnalysisChunk> chunks = jobStore.claimChunks(nodeId, free, leaseSeconds);
+        for (AnalysisChunk chunk : chunks) {
+            Long chunkId = chunk.getId();
+            claimed.add(chunkId);
+            try {
+                analysisScheduler.submit(() -> processingService.analyzeClaimedChunk(chunk, nodeId))
+                        .whenComplete((ignored, error) -> {
+                            claimed.remove(chunkId);
+                            if (error != null) {
+                                log.error("Claimed chunk {} of batch {} failed", chunkId, chunk.getBatchId(), error);
+                                jobStore.releaseChunk(chunkId, nodeId);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                // Pool full: give the chunk back for this or another node to claim later
+                claimed.remove(chunkId);
+                jobStore.releaseChunk(chunkId, nodeId);
+                log.warn("Analysis pool rejected claimed chunk {}", chunkId, e);
+            }
+        }
+    }
+
+    // Renews chunk leases and the jobs this node is summarizing
+    private void heartbeat() {
+        if (!claimed.isEmpty()) {
+            jobStore.renewLeases(nodeId, leaseSeconds);
+        }
+        Set<String> summarizing = processingService.getSummarizingBatches();
+        if (!summarizing.isEmpty()) {
+            jobStore.touchJobs(summarizing);
+        }
+    }
+
+    // Jobs left behind by a node that went away. Each transition is a conditional update,
+    // so when several nodes look at the same job only one of them acts on it.
+    private void recoverStaleJobs() {
+        for (String batchId : jobStore.failAbandonedIngests(staleJobSeconds)) {
+            log.warn("Upload of batch {} stopped without finishing; marking it FAILED", batchId);
+            processingService.failAbandonedBatch(batchId);
+        }
+
+        jobStore.claimStaleSummary(staleJobSeconds).ifPresent(batchId -> {
+            log.warn("Taking over the summary of batch {}", batchId);
+            analysisScheduler.submit(() -> processingService.summarizeFromStore(batchId));
+        });
+
+        // Last chunk checkpointed but the node stopped before moving the job on
+        for (String batchId : jobStore.findSummarizable()) {
+            if (jobStore.tryStartSummary(batchId)) {
+                analysisScheduler.submit(() -> processingService.summarizeFromStore(batchId));
+            }
+        }
+    }
+
+    private void run(String task, Runnable step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            log.warn("Chunk {} step failed", task, e);
+        }
+    }
+
+    // Gives unfinished chunks back right away instead of after the lease expires
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        try {
+            int released = jobStore.releaseChunks(nodeId);
+            if (released > 0) {
+                log.info("Released {} claimed chunks on shutdown", released);
+            }
+        } catch (Exception e) {
+            log.warn("Could not release claimed chunks; they are reclaimed once their leases expire", e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.reviewdashboard.service.impl;
+
+// Push decoder for the compact sentiment answer: one letter per review (P, U or N) in review
+// order, in groups of GROUP_SIZE separated by whitespace, followed by "=<count>", e.g.
+// "PPNUPPNNPU PN=12". A letter's position is its review number, so a dropped or extra letter
+// would shift every later answer. Labels are therefore held back until the answer has ended
+// and both the letter total and the trailing count equal the number of reviews; only then are
+// they reported. Any deviation (a group of the wrong length, a stray character, a missing or
+// wrong count) rejects the whole answer and leaves every review to the follow-up rounds.
+// Anything before the first letter (a markdown fence) is ignored. Works on chars.
+@lombok.extern.slf4j.Slf4j
+class CompactSentimentDecoder implements SentimentResponseDecoder {
+
+    static final int GROUP_SIZE = 10;
+
+    private static final String[] LABELS = {"POSITIVE", "NEUTRAL", "NEGATIVE"};
+
+    private final int expected;
+    private final IncrementalSentimentParser.ElementHandler handler;
+
+    // Label indexes in review order, reported once the answer checks out
+    private final byte[] labels;
+    private int letters;
+    private int groupLength;
+    private boolean shortGroupSeen;
+
+    private boolean started;
+    private boolean readingCount;
+    private boolean ended;
+    private boolean failed;
+    private boolean accepted;
+    private int count = -1;
+
+    CompactSentimentDecoder(int expected, IncrementalSentimentParser.ElementHandler handler) {
+        this.expected = expected;
+        this.handler = handler;
+        this.labels = new byte[expected];
+    }
+
+    @Override
+    public void feed(String fragment) {
+        for (int i = 0; i < fragment.length() && !failed && !ended; i++) {
+            char c = fragment.charAt(i);
+            if (readingCount) {
+                readCount(c);
+                continue;
+            }
+
+            int label = labelOf(c);
+            if (label >= 0) {
+                if (shortGroupSeen) {
+                    fail("letters after a short group");
+                } else if (groupLength == GROUP_SIZE) {
+                    fail("group longer than " + GROUP_SIZE);
+                } else if (letters == expected) {
+                    fail("more letters than reviews");
+                } else {
+                    labels[letters++] = (byte) label;
+                    groupLength++;
+                    started = true;
+                }
+            } else if (!started) {
+                // Preamble such as a markdown fence
+            } else if (Character.isWhitespace(c) || c == ',') {
+                closeGroup();
+            } else if (c == '=') {
+                closeGroup();
+                readingCount = true;
+                count = 0;
+            } else if (c == '`') {
+                // Closing fence without a count
+                closeGroup();
+                ended = true;
+            } else {
+                fail("unexpected character '" + c + "'");
+            }
+        }
+    }
+
+    // Reports every label if the answer is whole and its count matches, otherwise none
+    @Override
+    public void finish() {
+        if (failed || accepted)
+            return;
+        closeGroup();
+        if (failed)
+            return;
+        if (letters != expected) {
+            fail(letters + " letters for " + expected + " reviews");
+        } else if (count != expected) {
+            fail(count < 0 ? "no letter count" : "letter count " + count + " for " + expected + " reviews");
+        } else {
+            accepted = true;
+            for (int i = 0; i < expected; i++) {
+                handler.onElement(i, i, LABELS[labels[i]]);
+            }
+        }
+    }
+
+    @Override
+    public boolean isComplete() {
+        return accepted;
+    }
+
+    @Override
+    public int getElementCount() {
+        return accepted ? expected : 0;
+    }
+
+    // Only the last group may be shorter than GROUP_SIZE
+    private void closeGroup() {
+        if (groupLength == 0)
+            return;
+        if (groupLength < GROUP_SIZE) {
+            shortGroupSeen = true;
+        }
+        groupLength = 0;
+    }
+
+    private void readCount(char c) {
+        if (c >= '0' && c <= '9' && count < 1_000_000) {
+            count = count * 10 + (c - '0');
+        } else if (!(Character.isWhitespace(c) && count == 0)) {
+            ended = true;
+        }
+    }
+
+    private void fail(String reason) {
+        failed = true;
+        log.warn("Compact sentiment response rejected after {} letters: {}", letters, reason);
+    }
+
+    private static int labelOf(char c) {
+        switch (c) {
+            case 'P': return 0;
+            case 'U': return 1;
+            case 'N': return 2;
+            default: return -1;
+        }
+    }
+}
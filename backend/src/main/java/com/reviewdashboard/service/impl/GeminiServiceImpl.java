@@ -1,18 +1,22 @@
 package com.reviewdashboard.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reviewdashboard.dto.SentimentResult;
 import com.reviewdashboard.dto.SummaryResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 
 @lombok.extern.slf4j.Slf4j
@@ -23,159 +27,509 @@ public class GeminiServiceImpl {
     @Value("${gemini.api.key}")
     private String apiKey;
 
-    // Base URL for Gemini APIs
-    private static final String BASE_URL = "https://generativelanguage.googleapis.com/v1beta";
+    // Full generateContent endpoint (optional, overrides the default model)
+    @Value("${gemini.api.url:}")
+    private String apiUrl;
+
+    // Base URL for Gemini APIs (point at a local stub for load tests)
+    @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
+    private String baseUrl;
+
+    // Markdown code block around model output
+    private static final java.util.regex.Pattern CODE_FENCE =
+            java.util.regex.Pattern.compile("```(?:json)?\\s*([\\s\\S]*?)\\s*```");
+
+    // Model used when no explicit endpoint is configured
+    @Value("${gemini.api.model:gemini-1.5-flash}")
+    private String model;
+
+    // Follow-up requests for results that were missing or invalid
+    @Value("${gemini.sentiment.max-followup-rounds:2}")
+    private int maxFollowupRounds;
+
+    // Sentiment answer format: compact (one letter per review) or json
+    @Value("${gemini.sentiment.format:compact}")
+    private String sentimentFormat;
 
     // Cached resolved model endpoint
     private String cachedEndpointUrl;
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    // Read sentiment responses from streamGenerateContent as they are generated
+    @Value("${gemini.streaming.enabled:true}")
+    private boolean streamingEnabled;
 
-    public GeminiServiceImpl(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    // Per-attempt deadline for one HTTP exchange
+    @Value("${gemini.http.read-timeout-ms:120000}")
+    private long readTimeoutMs;
 
-        // Configure RestTemplate with timeout to avoid hanging requests
-        org.springframework.http.client.SimpleClientHttpRequestFactory factory =
-                new org.springframework.http.client.SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(120000); // 120 seconds
-        factory.setReadTimeout(120000);    // 120 seconds
+    // Deadline for one logical call, including retries
+    @Value("${gemini.http.total-timeout-ms:300000}")
+    private long totalTimeoutMs;
 
-        this.restTemplate = new RestTemplate(factory);
+    private final GeminiTransport transport;
+    private final ObjectMapper objectMapper;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final SentimentCache sentimentCache;
+    private final PromptPacker promptPacker;
+    private final PipelineMetrics metrics;
+    private final LocalSentimentClassifier localClassifier;
+    private final SentimentRequestCoalescer coalescer;
+
+    public GeminiServiceImpl(GeminiTransport transport,
+                             ObjectMapper objectMapper,
+                             AdaptiveConcurrencyLimiter concurrencyLimiter,
+                             SentimentCache sentimentCache,
+                             PromptPacker promptPacker,
+                             PipelineMetrics metrics,
+                             LocalSentimentClassifier localClassifier,
+                             SentimentRequestCoalescer coalescer) {
+        this.objectMapper = objectMapper;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.sentimentCache = sentimentCache;
+        this.transport = transport;
+        this.promptPacker = promptPacker;
+        this.metrics = metrics;
+        this.localClassifier = localClassifier;
+        this.coalescer = coalescer;
     }
 
     // Single review sentiment analysis (mainly for testing)
     public SentimentResult analyzeSentiment(String text) {
-        return analyzeSentimentBatch(List.of(text))
-                .getOrDefault(text,
-                        SentimentResult.builder().sentiment("NEUTRAL").build());
+        SentimentResult result = analyzeSentimentBatch(List.of(text)).get(0);
+        return result != null ? result
+                : SentimentResult.builder().sentiment(localClassifier.classify(text).getSentiment()).build();
     }
 
-    // Batch sentiment analysis for multiple reviews
-    public Map<String, SentimentResult> analyzeSentimentBatch(List<String> reviews) {
+    // Batch sentiment analysis for multiple reviews.
+    // The returned list is aligned with the input; an entry is null if no valid result was obtained.
+    public List<SentimentResult> analyzeSentimentBatch(List<String> reviews) {
+        SentimentResult[] results = new SentimentResult[reviews.size()];
+        analyzeSentimentBatch(reviews, (position, result) -> results[position] = result);
+        return Arrays.asList(results);
+    }
+
+    // Batch sentiment analysis that reports each result to the listener as soon as it is known.
+    // Positions that never get a valid result are not reported.
+    public void analyzeSentimentBatch(List<String> reviews, SentimentListener listener) {
         if (reviews.isEmpty())
-            return Collections.emptyMap();
+            return;
+
+        // Identical texts are classified once and reported at every position they occur
+        Map<String, List<Integer>> positionsByText = new LinkedHashMap<>();
+        for (int i = 0; i < reviews.size(); i++) {
+            positionsByText.computeIfAbsent(reviews.get(i), t -> new ArrayList<>(1)).add(i);
+        }
+
+        // Resolve cached texts first so only unseen ones reach the prompt
+        Map<String, String> keysByText = new HashMap<>();
+        if (sentimentCache.isEnabled()) {
+            positionsByText.keySet().forEach(text -> keysByText.put(text, SentimentCache.keyOf(text)));
+        }
+        Map<String, String> cached = sentimentCache.getAll(new HashSet<>(keysByText.values()));
+
+        // Clear-cut reviews are classified in-process; only the ambiguous rest reaches the prompt
+        List<String> misses = new ArrayList<>();
+        int resolvedLocally = 0;
+        for (String review : positionsByText.keySet()) {
+            String sentiment = cached.get(keysByText.get(review));
+            if (sentiment == null) {
+                sentiment = localClassifier.resolve(review);
+                if (sentiment != null) {
+                    resolvedLocally += positionsByText.get(review).size();
+                }
+            }
+            if (sentiment != null) {
+                SentimentResult result = SentimentResult.builder().sentiment(sentiment).build();
+                positionsByText.get(review).forEach(position -> listener.onResult(position, result));
+            } else {
+                misses.add(review);
+            }
+        }
+        metrics.countLocalSentiments(PipelineMetrics.LOCAL_RESOLVED, resolvedLocally);
+
+        // Each pack is sized to fit the prompt's token budget; small ones share a prompt with
+        // other uploads' small packs instead of paying a request of their own
+        Map<String, String> fresh = new HashMap<>();
+        for (List<String> pack : promptPacker.pack(misses)) {
+            SentimentListener packListener = (i, result) -> {
+                String text = pack.get(i);
+                positionsByText.get(text).forEach(position -> listener.onResult(position, result));
+                fresh.put(keysByText.get(text), result.getSentiment());
+            };
+            if (coalescer.accepts(pack.size())) {
+                coalescer.classify(pack, packListener, this::classifyPacked);
+            } else {
+                classifySentiments(pack, packListener);
+            }
+        }
+
+        if (sentimentCache.isEnabled()) {
+            sentimentCache.putAll(fresh);
+        }
+    }
+
+    // Classifies reviews of any count pack by pack, reporting positions in the whole list
+    private void classifyPacked(List<String> reviews, SentimentListener listener) {
+        int offset = 0;
+        for (List<String> pack : promptPacker.pack(reviews)) {
+            int base = offset;
+            classifySentiments(pack, (i, result) -> listener.onResult(base + i, result));
+            offset += pack.size();
+        }
+    }
+
+    // Classifies one pack, reporting each result once. Elements that come back missing or
+    // invalid are sent again on their own in a smaller follow-up request, up to the
+    // configured number of rounds.
+    private void classifySentiments(List<String> reviews, SentimentListener listener) {
+        boolean[] done = new boolean[reviews.size()];
+
+        List<Integer> pending = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            pending.add(i);
+        }
+
+        for (int round = 0; round <= maxFollowupRounds && !pending.isEmpty(); round++) {
+            List<Integer> asked = pending;
+            List<String> texts = new ArrayList<>(asked.size());
+            asked.forEach(i -> texts.add(reviews.get(i)));
 
-        // Build prompt for batch sentiment classification
+            SentimentResult[] answered = new SentimentResult[texts.size()];
+            SentimentListener roundListener = (j, result) -> {
+                answered[j] = result;
+                done[asked.get(j)] = true;
+                listener.onResult(asked.get(j), result);
+            };
+
+            try {
+                requestSentiments(texts, roundListener);
+            } catch (Exception e) {
+                // Keep whatever arrived before the failure; the rest goes to the next round.
+                // With nothing answered the call was retried until it gave up, so stop there.
+                log.error("Error analyzing sentiment batch", e);
+                if (Arrays.stream(answered).allMatch(Objects::isNull))
+                    break;
+            }
+
+            List<Integer> stillPending = new ArrayList<>();
+            for (Integer i : asked) {
+                if (!done[i]) {
+                    stillPending.add(i);
+                }
+            }
+
+            if (!stillPending.isEmpty()) {
+                log.warn("{} of {} sentiment results missing or invalid (round {})",
+                        stillPending.size(), texts.size(), round + 1);
+            }
+            pending = stillPending;
+        }
+    }
+
+    // Sends one sentiment prompt and reports each valid element as it is parsed.
+    // In streaming mode results arrive while the model is still generating. A stream that
+    // fails before any result was reported is retried from scratch with a fresh decoder; the
+    // compact format reports nothing until the whole answer has checked out, so this covers
+    // every compact stream cut short.
+    private void requestSentiments(List<String> texts, SentimentListener listener) throws IOException {
+        int expected = texts.size();
+        boolean[] seen = new boolean[expected];
+        int[] reported = new int[1];
+        IncrementalSentimentParser.ElementHandler handler = (position, index, raw) -> {
+            // Fall back to array position when the model omits the index
+            int target = index != null ? index : position;
+            String sentiment = validSentiment(raw);
+            if (target < 0 || target >= expected || seen[target] || sentiment == null)
+                return;
+            seen[target] = true;
+            reported[0]++;
+            listener.onResult(target, SentimentResult.builder().sentiment(sentiment).build());
+        };
+
+        boolean compact = isCompactFormat();
+        String prompt = compact ? buildCompactSentimentPrompt(texts, promptPacker) : buildSentimentPrompt(texts, promptPacker);
+
+        SentimentResponseDecoder[] decoder = new SentimentResponseDecoder[1];
+        if (streamingEnabled) {
+            streamGemini(prompt, () -> {
+                decoder[0] = newSentimentDecoder(compact, expected, handler);
+                return decoder[0]::feed;
+            }, () -> reported[0] == 0);
+        } else {
+            decoder[0] = newSentimentDecoder(compact, expected, handler);
+            decoder[0].feed(callGemini(prompt));
+        }
+        decoder[0].finish();
+
+        if (!decoder[0].isComplete()) {
+            log.warn("Sentiment response incomplete: {} of {} elements", decoder[0].getElementCount(), expected);
+        }
+    }
+
+    private SentimentResponseDecoder newSentimentDecoder(boolean compact, int expected,
+                                                         IncrementalSentimentParser.ElementHandler handler) {
+        if (compact)
+            return new CompactSentimentDecoder(expected, handler);
+        try {
+            return new IncrementalSentimentParser(objectMapper.getFactory(), handler);
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    private boolean isCompactFormat() {
+        return !"json".equalsIgnoreCase(sentimentFormat);
+    }
+
+    // Prompt asking for one letter per review, in groups of ten followed by the letter count.
+    // Output tokens dominate the latency of a sentiment call; this needs a fraction of the JSON's.
+    static String buildCompactSentimentPrompt(List<String> reviews, PromptPacker promptPacker) {
         StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append("Classify the sentiment of the following reviews as POSITIVE, NEUTRAL, or NEGATIVE.\n");
-        promptBuilder.append("Return strictly a JSON array of objects, where each object has 'sentiment' field.\n");
-        promptBuilder.append("The order must match the input list exactly.\n");
+        promptBuilder.append("Classify the sentiment of each of the following ").append(reviews.size())
+                .append(" reviews.\n");
+        promptBuilder.append("Answer with exactly one letter per review, in review order: ");
+        promptBuilder.append("P for positive, U for neutral, N for negative.\n");
+        promptBuilder.append("Write the letters in groups of ").append(CompactSentimentDecoder.GROUP_SIZE)
+                .append(" separated by a space, then '=' and the number of letters, and nothing else. ");
+        promptBuilder.append("Example for 12 reviews: PPNUPPNNPU PN=12\n");
         promptBuilder.append("Reviews:\n");
 
         for (int i = 0; i < reviews.size(); i++) {
             promptBuilder.append(i)
                     .append(". ")
-                    .append(reviews.get(i).replace("\n", " "))
+                    .append(promptPacker.truncate(reviews.get(i)))
                     .append("\n");
         }
+        return promptBuilder.toString();
+    }
 
-        try {
-            String responseText = callGemini(promptBuilder.toString());
-            return parseSentimentBatch(responseText, reviews);
-        } catch (Exception e) {
-            log.error("Error analyzing sentiment batch", e);
+    // Build prompt for batch sentiment classification
+    static String buildSentimentPrompt(List<String> reviews, PromptPacker promptPacker) {
+        StringBuilder promptBuilder = new StringBuilder();
+        promptBuilder.append("Classify the sentiment of the following reviews as POSITIVE, NEUTRAL, or NEGATIVE.\n");
+        promptBuilder.append("Return strictly a JSON array of objects, one per review, ");
+        promptBuilder.append("each with an 'index' field (the review number) and a 'sentiment' field.\n");
+        promptBuilder.append("Reviews:\n");
 
-            // Fallback: mark all reviews as NEUTRAL
-            Map<String, SentimentResult> fallback = new HashMap<>();
-            for (String r : reviews) {
-                fallback.put(r,
-                        SentimentResult.builder().sentiment("NEUTRAL").build());
-            }
-            return fallback;
+        for (int i = 0; i < reviews.size(); i++) {
+            promptBuilder.append(i)
+                    .append(". ")
+                    .append(promptPacker.truncate(reviews.get(i)))
+                    .append("\n");
         }
+        return promptBuilder.toString();
     }
 
-    // Generate summary (pros, cons, overall summary)
-    public SummaryResult generateSummary(List<String> reviews) {
-        // Limit reviews to avoid token limit issues
-        List<String> limitedReviews = reviews.subList(0, Math.min(reviews.size(), 50));
-        String reviewsText = String.join("\n- ", limitedReviews);
+    // Summarizes one group of reviews (pros, cons, overall summary); throws on failure
+    public SummaryResult summarizeReviews(List<String> reviews) {
+        StringBuilder reviewsText = new StringBuilder();
+        for (String review : reviews) {
+            reviewsText.append("- ").append(promptPacker.truncate(review)).append("\n");
+        }
 
         String prompt =
                 "Analyze the following list of reviews. If they are just product names, list them as features. " +
                 "Identify top 5 pros and top 5 cons. Write a short overall summary. " +
+                "A line starting with [xN] stands for N near-identical reviews; weigh it accordingly. " +
                 "Return strictly valid JSON (NO markdown backticks) with format: " +
                 "{\"pros\": [], \"cons\": [], \"summary\": \"...\"}. Reviews:\n" +
                 reviewsText;
 
+        return requestSummary(prompt);
+    }
+
+    // Merges partial summaries of disjoint review groups into one; throws on failure
+    public SummaryResult mergeSummaries(List<SummaryResult> partials) {
+        StringBuilder partialsText = new StringBuilder();
+        for (int i = 0; i < partials.size(); i++) {
+            SummaryResult partial = partials.get(i);
+            partialsText.append("Group ").append(i + 1).append(":\n")
+                    .append("Pros: ").append(String.join("; ", partial.getPros())).append("\n")
+                    .append("Cons: ").append(String.join("; ", partial.getCons())).append("\n")
+                    .append("Summary: ").append(partial.getSummary()).append("\n\n");
+        }
+
+        String prompt =
+                "The following are summaries of separate groups of reviews from the same upload. " +
+                "Merge them: identify the top 5 pros and top 5 cons overall, favouring points that recur " +
+                "across groups, and write a short overall summary. " +
+                "Return strictly valid JSON (NO markdown backticks) with format: " +
+                "{\"pros\": [], \"cons\": [], \"summary\": \"...\"}.\n\n" +
+                partialsText;
+
+        return requestSummary(prompt);
+    }
+
+    private SummaryResult requestSummary(String prompt) {
+        String responseText = callGemini(prompt);
         try {
-            String responseText = callGemini(prompt);
             return parseSummary(responseText);
         } catch (Exception e) {
-            log.error("Error generating summary", e);
-
-            // Safe fallback response
-            return SummaryResult.builder()
-                    .pros(Collections.emptyList())
-                    .cons(Collections.emptyList())
-                    .summary("Could not generate summary due to API error: " + e.getMessage())
-                    .build();
+            throw new RuntimeException("Failed to parse summary response", e);
         }
     }
 
     // Calls Gemini API with retry and rate-limit handling
     private String callGemini(String inputPrompt) {
         ensureModelUrlResolved();
+        return callWithRetries("unary", timeout -> executeRequest(cachedEndpointUrl, inputPrompt, timeout), () -> true);
+    }
+
+    // Streams a response, passing each generated text fragment on as it arrives. Every attempt
+    // gets its own consumer, so a retried stream never continues a half-fed one. A failure is
+    // retried while retryable holds, i.e. while nothing has been reported to the caller.
+    // A stream the transport aborts for going quiet (gemini.http.stream-idle-timeout-ms) or for
+    // outliving the attempt timeout fails the same way; unanswered reviews go to the follow-up rounds.
+    private void streamGemini(String inputPrompt,
+                              java.util.function.Supplier<java.util.function.Consumer<String>> attemptFragments,
+                              java.util.function.BooleanSupplier retryable) {
+        ensureModelUrlResolved();
+        String streamUrl = cachedEndpointUrl.replace(":generateContent", ":streamGenerateContent") + "?alt=sse";
 
+        callWithRetries("stream", timeout -> {
+            executeStreamingRequest(streamUrl, inputPrompt, timeout, attemptFragments.get());
+            return null;
+        }, retryable);
+    }
+
+    // Runs one attempt at a time under the adaptive limiter.
+    // Concurrency is governed by the limiter instead of a fixed sleep ladder.
+    private <T> T callWithRetries(String mode,
+                                  java.util.function.Function<Duration, T> attempt,
+                                  java.util.function.BooleanSupplier retryable) {
         int maxRetries = 5;
-        int delayMs = 2000;
+        long deadline = System.currentTimeMillis() + totalTimeoutMs;
 
         for (int i = 0; i < maxRetries; i++) {
+            long remainingMs = deadline - System.currentTimeMillis();
+            if (remainingMs <= 0) {
+                throw new RuntimeException("Gemini call exceeded total deadline of " + totalTimeoutMs + "ms");
+            }
+
+            try {
+                concurrencyLimiter.acquire();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a Gemini slot", ie);
+            }
+
+            long start = System.nanoTime();
             try {
-                return executeRequest(cachedEndpointUrl, inputPrompt);
+                T response = attempt.apply(Duration.ofMillis(Math.min(readTimeoutMs, remainingMs)));
+                long elapsed = System.nanoTime() - start;
+                concurrencyLimiter.onSuccess(elapsed / 1_000_000);
+                metrics.recordGeminiCall(mode, "success", elapsed);
+                return response;
             } catch (HttpClientErrorException.TooManyRequests e) {
                 // Handle Gemini rate limiting (HTTP 429)
-                log.warn("Gemini rate limit hit. Retrying in {}ms... (Attempt {}/{})",
-                        delayMs, i + 1, maxRetries);
-                try {
-                    Thread.sleep(delayMs);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during retry wait", ie);
-                }
-                delayMs = Math.min(delayMs * 2, 8000);
+                concurrencyLimiter.onThrottled();
+                metrics.recordGeminiCall(mode, "throttled", System.nanoTime() - start);
+                if (!retryable.getAsBoolean())
+                    throw e;
+                metrics.countGeminiRetry("throttled");
+                long delayMs = retryDelayMs(e);
+                log.warn("Gemini rate limit hit. Limit now {}, retrying in {}ms... (Attempt {}/{})",
+                        concurrencyLimiter.getLimit(), delayMs, i + 1, maxRetries);
+                pause(delayMs);
             } catch (Exception e) {
-                if (i == maxRetries - 1) {
+                concurrencyLimiter.onFailure();
+                metrics.recordGeminiCall(mode, "error", System.nanoTime() - start);
+                if (i == maxRetries - 1 || !retryable.getAsBoolean()) {
                     log.error("Gemini request failed after retries", e);
                     throw new RuntimeException("Failed to call Gemini API after retries", e);
                 }
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException ignored) {
-                }
+                metrics.countGeminiRetry("error");
+                pause(1000);
             }
         }
 
         throw new RuntimeException("Gemini API failed after " + maxRetries + " attempts");
     }
 
-    // Executes the actual HTTP request to Gemini
-    private String executeRequest(String url, String inputPrompt) {
-        String fullUrl = url + "?key=" + apiKey;
+    // Honors Retry-After when present, otherwise waits a short random interval
+    private long retryDelayMs(HttpClientErrorException e) {
+        HttpHeaders headers = e.getResponseHeaders();
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return java.util.concurrent.ThreadLocalRandom.current().nextLong(200, 1000);
+    }
+
+    private void pause(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during retry wait", ie);
+        }
+    }
 
-        Map<String, Object> contentPart = Map.of("text", inputPrompt);
-        Map<String, Object> content = Map.of("parts", List.of(contentPart));
+    // Resolves the generateContent endpoint once and caches it
+    private void ensureModelUrlResolved() {
+        if (cachedEndpointUrl != null)
+            return;
 
-        // Lower temperature for more stable JSON output
-        Map<String, Object> generationConfig = Map.of(
-                "temperature", 0.2,
-                "topP", 0.85
-        );
+        if (apiUrl != null && !apiUrl.isBlank()) {
+            cachedEndpointUrl = apiUrl;
+        } else {
+            cachedEndpointUrl = baseUrl + "/models/" + model + ":generateContent";
+        }
+        log.debug("Using Gemini endpoint: {}", cachedEndpointUrl);
+    }
 
-        Map<String, Object> requestBody = Map.of(
-                "contents", List.of(content),
-                "generationConfig", generationConfig
-        );
+    // Parses pros, cons and summary from the model output
+    private SummaryResult parseSummary(String responseText) throws Exception {
+        JsonNode root = objectMapper.readTree(cleanJson(responseText));
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<String> pros = new ArrayList<>();
+        root.path("pros").forEach(n -> pros.add(n.asText()));
 
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        List<String> cons = new ArrayList<>();
+        root.path("cons").forEach(n -> cons.add(n.asText()));
+
+        return SummaryResult.builder()
+                .pros(pros)
+                .cons(cons)
+                .summary(root.path("summary").asText(""))
+                .build();
+    }
+
+    // Returns the canonical label, or null for anything outside the three known labels
+    private String validSentiment(String raw) {
+        if (raw == null)
+            return null;
 
+        String value = raw.trim().toUpperCase(Locale.ROOT);
+        if (value.equals("POSITIVE") || value.equals("NEUTRAL") || value.equals("NEGATIVE"))
+            return value;
+        return null;
+    }
+
+    // Executes the actual HTTP request to Gemini
+    private String executeRequest(String url, String inputPrompt, Duration timeout) {
         try {
-            String response = restTemplate.postForObject(fullUrl, entity, String.class);
+            long serializeStart = System.nanoTime();
+            byte[] requestBody = writeRequestBody(inputPrompt);
+            long sendStart = System.nanoTime();
+
+            String response = transport.postJson(url, apiKey, requestBody, timeout);
+            long received = System.nanoTime();
+
             JsonNode root = objectMapper.readTree(response);
+            long parsed = System.nanoTime();
+
+            metrics.recordGeminiRequest(inputPrompt.length(), requestBody.length);
+            metrics.recordGeminiResponse(response.length());
+            recordUsage(root);
+
+            log.debug("Gemini call: request {} bytes, response {} chars, serialize {}us, exchange {}ms, parse {}us",
+                    requestBody.length, response.length(),
+                    (sendStart - serializeStart) / 1_000, (received - sendStart) / 1_000_000,
+                    (parsed - received) / 1_000);
 
             // Extract generated text from response
             return root.path("candidates")
@@ -185,23 +539,113 @@ public class GeminiServiceImpl {
                     .get(0)
                     .path("text")
                     .asText();
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            // Let callGemini see rate limiting
+            throw e;
         } catch (Exception e) {
             log.error("Gemini request execution failed. URL: {}", url, e);
             throw new RuntimeException("Failed to execute or parse Gemini response", e);
         }
     }
 
+    // Executes a streamGenerateContent request and hands each text fragment to the consumer
+    private void executeStreamingRequest(String url, String inputPrompt, Duration timeout,
+                                         java.util.function.Consumer<String> fragments) {
+        try {
+            byte[] requestBody = writeRequestBody(inputPrompt);
+            metrics.recordGeminiRequest(inputPrompt.length(), requestBody.length);
+            long sendStart = System.nanoTime();
+            long[] firstFragmentAt = new long[1];
+            int[] responseChars = new int[1];
+
+            // Each server-sent event carries one partial generateContent response
+            transport.streamJson(url, apiKey, requestBody, timeout, line -> {
+                if (!line.startsWith("data:"))
+                    return;
+                JsonNode event;
+                try {
+                    event = objectMapper.readTree(line.substring(5).trim());
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Malformed Gemini stream event", e);
+                }
+                if (event.has("error")) {
+                    throw new IllegalStateException("Gemini stream error: " + event.path("error").path("message").asText());
+                }
+
+                // Only the final event carries the complete usage counts
+                if (event.has("usageMetadata") && event.path("candidates").path(0).has("finishReason")) {
+                    recordUsage(event);
+                }
+
+                String text = event.path("candidates").path(0).path("content").path("parts").path(0).path("text").asText("");
+                if (!text.isEmpty()) {
+                    if (firstFragmentAt[0] == 0) {
+                        firstFragmentAt[0] = System.nanoTime();
+                        metrics.recordFirstFragment(firstFragmentAt[0] - sendStart);
+                    }
+                    responseChars[0] += text.length();
+                    fragments.accept(text);
+                }
+            });
+            metrics.recordGeminiResponse(responseChars[0]);
+
+            log.debug("Gemini stream: request {} bytes, first fragment after {}ms, complete after {}ms",
+                    requestBody.length,
+                    firstFragmentAt[0] == 0 ? -1 : (firstFragmentAt[0] - sendStart) / 1_000_000,
+                    (System.nanoTime() - sendStart) / 1_000_000);
+        } catch (HttpClientErrorException.TooManyRequests e) {
+            // Let callWithRetries see rate limiting
+            throw e;
+        } catch (Exception e) {
+            log.error("Gemini streaming request failed. URL: {}", url, e);
+            throw new RuntimeException("Failed to execute or read Gemini stream", e);
+        }
+    }
+
+    // Records token counts from usageMetadata when the API reports them
+    private void recordUsage(JsonNode response) {
+        JsonNode usage = response.path("usageMetadata");
+        metrics.recordGeminiTokens(usage.path("promptTokenCount").asLong(0),
+                usage.path("candidatesTokenCount").asLong(0));
+    }
+
+    // Writes the generateContent body straight to bytes
+    private byte[] writeRequestBody(String inputPrompt) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(inputPrompt.length() + 256);
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+
+            json.writeArrayFieldStart("contents");
+            json.writeStartObject();
+            json.writeArrayFieldStart("parts");
+            json.writeStartObject();
+            json.writeStringField("text", inputPrompt);
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+
+            // Lower temperature for more stable JSON output
+            json.writeObjectFieldStart("generationConfig");
+            json.writeNumberField("temperature", 0.2);
+            json.writeNumberField("topP", 0.85);
+            json.writeNumberField("maxOutputTokens", promptPacker.getMaxOutputTokens());
+            json.writeEndObject();
+
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
     // Utility method to clean malformed or wrapped JSON from AI output
-    private String cleanJson(String raw) {
+    static String cleanJson(String raw) {
         if (raw == null)
             return "{}";
 
         raw = raw.trim();
 
         // Try to extract JSON from markdown code block
-        java.util.regex.Pattern pattern =
-                java.util.regex.Pattern.compile("```(?:json)?\\s*([\\s\\S]*?)\\s*```");
-        java.util.regex.Matcher matcher = pattern.matcher(raw);
+        java.util.regex.Matcher matcher = CODE_FENCE.matcher(raw);
         if (matcher.find()) {
             return matcher.group(1).trim();
         }
@@ -0,0 +1,16 @@
+package com.reviewdashboard.service.impl;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// HTTP transport used by GeminiServiceImpl.
+// Implementations raise HttpClientErrorException / HttpServerErrorException for non-2xx
+// responses so that rate limiting (429) surfaces as HttpClientErrorException.TooManyRequests.
+public interface GeminiTransport {
+
+    // Posts a JSON body and returns the response body
+    String postJson(String url, String apiKey, byte[] jsonBody, Duration timeout);
+
+    // Posts a JSON body and hands each line of the (server-sent events) response to the consumer
+    void streamJson(String url, String apiKey, byte[] jsonBody, Duration timeout, Consumer<String> lines);
+}
@@ -0,0 +1,139 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.SummaryResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Map-reduce summary over a batch sample.
+// Groups of reviews are summarized in parallel, then partial summaries are merged
+// fan-in at a time for up to max-merge-depth rounds, with one last merge if needed.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class HierarchicalSummarizer {
+
+    private final GeminiServiceImpl geminiService;
+    private final ExecutorService executor;
+    private final int mapGroupSize;
+    private final int mergeFanIn;
+    private final int maxMergeDepth;
+
+    public HierarchicalSummarizer(GeminiServiceImpl geminiService,
+                                  @Value("${review.summary.map-group-size:150}") int mapGroupSize,
+                                  @Value("${review.summary.merge-fan-in:8}") int mergeFanIn,
+                                  @Value("${review.summary.max-merge-depth:2}") int maxMergeDepth,
+                                  @Value("${review.summary.parallelism:4}") int parallelism) {
+        this.geminiService = geminiService;
+        this.mapGroupSize = mapGroupSize;
+        this.mergeFanIn = Math.max(2, mergeFanIn);
+        this.maxMergeDepth = maxMergeDepth;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "summary-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Summarizes a sample grouped by sentiment; never throws
+    public SummaryResult summarize(Map<String, List<String>> sampleBySentiment) {
+        List<String> reviews = new ArrayList<>();
+        sampleBySentiment.forEach((sentiment, texts) ->
+                texts.forEach(text -> reviews.add(label(sentiment, text))));
+
+        // Spread strata across map groups
+        Collections.shuffle(reviews);
+
+        try {
+            List<SummaryResult> partials = mapPhase(reviews);
+            return reducePhase(partials);
+        } catch (Exception e) {
+            log.error("Error generating summary", e);
+
+            // Safe fallback response
+            return SummaryResult.builder()
+                    .pros(Collections.emptyList())
+                    .cons(Collections.emptyList())
+                    .summary("Could not generate summary due to API error: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private List<SummaryResult> mapPhase(List<String> reviews) {
+        List<List<String>> groups = new ArrayList<>();
+        for (int i = 0; i < reviews.size(); i += mapGroupSize) {
+            groups.add(reviews.subList(i, Math.min(reviews.size(), i + mapGroupSize)));
+        }
+        if (groups.isEmpty()) {
+            groups.add(Collections.emptyList());
+        }
+
+        log.debug("Summary map phase: {} reviews in {} groups", reviews.size(), groups.size());
+        return runAll(groups, geminiService::summarizeReviews);
+    }
+
+    private SummaryResult reducePhase(List<SummaryResult> partials) {
+        int depth = 0;
+        while (partials.size() > 1 && depth < maxMergeDepth) {
+            List<List<SummaryResult>> groups = new ArrayList<>();
+            for (int i = 0; i < partials.size(); i += mergeFanIn) {
+                groups.add(partials.subList(i, Math.min(partials.size(), i + mergeFanIn)));
+            }
+            partials = runAll(groups, this::mergeGroup);
+            depth++;
+        }
+
+        // Depth limit reached: fold whatever is left in one final merge
+        if (partials.size() > 1) {
+            return geminiService.mergeSummaries(partials);
+        }
+        return partials.get(0);
+    }
+
+    private SummaryResult mergeGroup(List<SummaryResult> group) {
+        return group.size() == 1 ? group.get(0) : geminiService.mergeSummaries(group);
+    }
+
+    // Runs one call per group in parallel; failed groups are dropped unless all fail
+    private <T> List<SummaryResult> runAll(List<T> groups, java.util.function.Function<T, SummaryResult> call) {
+        List<CompletableFuture<SummaryResult>> futures = new ArrayList<>();
+        for (T group : groups) {
+            futures.add(CompletableFuture.supplyAsync(() -> call.apply(group), executor));
+        }
+
+        List<SummaryResult> results = new ArrayList<>();
+        RuntimeException lastError = null;
+        for (CompletableFuture<SummaryResult> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (RuntimeException e) {
+                log.warn("Summary step failed, continuing without it", e);
+                lastError = e;
+            }
+        }
+
+        if (results.isEmpty() && lastError != null)
+            throw lastError;
+        return results;
+    }
+
+    // Prefixes the sentiment so the model can tell strata apart
+    private static String label(String sentiment, String text) {
+        return StratifiedReviewSampler.ALL.equals(sentiment) ? text : "(" + sentiment + ") " + text;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
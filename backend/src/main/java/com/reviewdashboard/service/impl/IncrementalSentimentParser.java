@@ -0,0 +1,136 @@
+package com.reviewdashboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Push parser for the sentiment JSON array.
+// Text can be fed in arbitrary fragments; every array element is reported as soon as
+// it is complete. Anything before the opening '[' (such as a markdown fence) and after
+// the closing ']' is ignored. After a syntax error the parser stops and keeps what it has.
+@lombok.extern.slf4j.Slf4j
+class IncrementalSentimentParser implements SentimentResponseDecoder {
+
+    // Receives one array element: its position, the 'index' field if present, and the raw label
+    interface ElementHandler {
+        void onElement(int position, Integer index, String sentiment);
+    }
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final ElementHandler handler;
+
+    private boolean started;
+    private boolean finished;
+    private boolean failed;
+
+    private int depth;
+    private int position;
+    private String currentField;
+    private Integer currentIndex;
+    private String currentSentiment;
+
+    IncrementalSentimentParser(JsonFactory jsonFactory, ElementHandler handler) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.handler = handler;
+    }
+
+    @Override
+    public void feed(String fragment) {
+        if (finished || failed || fragment.isEmpty())
+            return;
+
+        if (!started) {
+            int start = fragment.indexOf('[');
+            if (start < 0)
+                return;
+            fragment = fragment.substring(start);
+            started = true;
+        }
+
+        byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            drain();
+        } catch (IOException e) {
+            failed = true;
+            log.warn("Sentiment response malformed after {} elements: {}", position, e.getMessage());
+        }
+    }
+
+    // True once the closing ']' of the array has been read
+    @Override
+    public boolean isComplete() {
+        return finished;
+    }
+
+    @Override
+    public int getElementCount() {
+        return position;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT:
+                    depth++;
+                    if (depth == 2) {
+                        currentField = null;
+                        currentIndex = null;
+                        currentSentiment = null;
+                    }
+                    break;
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    depth--;
+                    if (depth == 1) {
+                        handler.onElement(position++, currentIndex, currentSentiment);
+                    }
+                    break;
+                case END_ARRAY:
+                    depth--;
+                    if (depth == 0) {
+                        finished = true;
+                    } else if (depth == 1) {
+                        // Nested array in place of an element
+                        position++;
+                    }
+                    break;
+                case FIELD_NAME:
+                    if (depth == 2) {
+                        currentField = parser.currentName();
+                    }
+                    break;
+                case VALUE_STRING:
+                    if (depth == 1) {
+                        // Bare label in place of an object
+                        handler.onElement(position++, null, parser.getText());
+                    } else if (depth == 2 && "sentiment".equals(currentField)) {
+                        currentSentiment = parser.getText();
+                    }
+                    break;
+                case VALUE_NUMBER_INT:
+                    if (depth == 1) {
+                        position++;
+                    } else if (depth == 2 && "index".equals(currentField)) {
+                        currentIndex = parser.getIntValue();
+                    }
+                    break;
+                default:
+                    // Other scalars: count them as elements at the top level, ignore otherwise
+                    if (depth == 1) {
+                        position++;
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.reviewdashboard.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Default transport on the JDK HttpClient: one shared client with pooled keep-alive
+// connections, HTTP/2 multiplexing where the server supports it, optional gzip request
+// bodies, and a cap on concurrent requests per host. Every exchange, body included, is bounded
+// by the per-attempt timeout, and a stream also fails when it goes quiet for the idle timeout.
+@lombok.extern.slf4j.Slf4j
+@Component
+@ConditionalOnProperty(name = "gemini.http.transport", havingValue = "jdk", matchIfMissing = true)
+public class JdkGeminiTransport implements GeminiTransport {
+
+    private final HttpClient client;
+    private final boolean gzipRequests;
+    private final int maxRequestsPerRoute;
+    private final long streamIdleTimeoutNanos;
+    private final Map<String, Semaphore> routeLimits = new ConcurrentHashMap<>();
+
+    // Closes response bodies that outlive their deadline; HttpRequest.timeout only covers the headers
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gemini-http-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public JdkGeminiTransport(@Value("${gemini.http.connect-timeout-ms:10000}") long connectTimeoutMs,
+                              @Value("${gemini.http.http2:true}") boolean http2,
+                              @Value("${gemini.http.gzip-requests:false}") boolean gzipRequests,
+                              @Value("${gemini.http.max-requests-per-route:64}") int maxRequestsPerRoute,
+                              @Value("${gemini.http.stream-idle-timeout-ms:30000}") long streamIdleTimeoutMs) {
+        this.gzipRequests = gzipRequests;
+        this.maxRequestsPerRoute = maxRequestsPerRoute;
+        this.streamIdleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(streamIdleTimeoutMs);
+        this.client = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    @Override
+    public String postJson(String url, String apiKey, byte[] jsonBody, Duration timeout) {
+        return exchange(url, apiKey, jsonBody, timeout, (response, deadline) -> {
+            try (InputStream in = bodyStream(response)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        });
+    }
+
+    @Override
+    public void streamJson(String url, String apiKey, byte[] jsonBody, Duration timeout, Consumer<String> lines) {
+        exchange(url, apiKey, jsonBody, timeout, (response, deadline) -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(bodyStream(response), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = awaitLine(reader, deadline)) != null) {
+                    lines.accept(line);
+                }
+            }
+            return null;
+        });
+    }
+
+    // Next line of a stream, which is closed if nothing arrives within the idle timeout
+    private String awaitLine(BufferedReader reader, BodyDeadline deadline) throws IOException {
+        long remaining = deadline.remainingNanos();
+        if (streamIdleTimeoutNanos > 0 && streamIdleTimeoutNanos < remaining) {
+            deadline.schedule(streamIdleTimeoutNanos,
+                    "sent nothing for " + TimeUnit.NANOSECONDS.toMillis(streamIdleTimeoutNanos) + "ms");
+        } else {
+            deadline.schedule(remaining, "did not complete before its deadline");
+        }
+        return reader.readLine();
+    }
+
+    // Sends the request while holding a slot for its route and reads a 2xx body with the given reader.
+    // The whole exchange, body included, must finish within the timeout.
+    private <T> T exchange(String url, String apiKey, byte[] jsonBody, Duration timeout, BodyReader<T> bodyReader) {
+        URI uri = URI.create(url);
+        byte[] body = gzipRequests ? gzip(jsonBody) : jsonBody;
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header("x-goog-api-key", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (gzipRequests) {
+            request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        Semaphore routeLimit = routeLimits.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(),
+                route -> new Semaphore(maxRequestsPerRoute));
+        try {
+            if (!routeLimit.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out waiting for a connection slot to " + uri.getAuthority());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a connection slot", e);
+        }
+
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        BodyDeadline deadline = null;
+        try {
+            HttpResponse<InputStream> response =
+                    client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            deadline = new BodyDeadline(response.body(), deadlineNanos);
+
+            int status = response.statusCode();
+            if (status < 200 || status >= 300) {
+                byte[] errorBody;
+                try (InputStream in = bodyStream(response)) {
+                    errorBody = in.readAllBytes();
+                }
+                throw errorFor(response, errorBody);
+            }
+            return bodyReader.read(response, deadline);
+        } catch (IOException e) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new UncheckedIOException(new HttpTimeoutException(
+                        "Gemini response from " + uri.getAuthority() + " " + deadline.describe()));
+            }
+            throw new UncheckedIOException("Gemini request to " + uri.getAuthority() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during Gemini request", e);
+        } finally {
+            if (deadline != null) {
+                deadline.cancel();
+            }
+            routeLimit.release();
+        }
+    }
+
+    private interface BodyReader<T> {
+        T read(HttpResponse<InputStream> response, BodyDeadline deadline) throws IOException;
+    }
+
+    // Closes the response body once the deadline passes, which makes a read blocked on it
+    // fail with an IOException instead of holding the worker and its slots indefinitely
+    private final class BodyDeadline {
+        private final InputStream body;
+        private final long deadlineNanos;
+        private ScheduledFuture<?> timer;
+        private volatile String expiredReason;
+
+        BodyDeadline(InputStream body, long deadlineNanos) {
+            this.body = body;
+            this.deadlineNanos = deadlineNanos;
+            schedule(deadlineNanos - System.nanoTime(), "did not complete before its deadline");
+        }
+
+        synchronized void schedule(long delayNanos, String reason) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            timer = watchdog.schedule(() -> expire(reason), Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        }
+
+        long remainingNanos() {
+            return deadlineNanos - System.nanoTime();
+        }
+
+        boolean isExpired() {
+            return expiredReason != null;
+        }
+
+        String describe() {
+            return expiredReason;
+        }
+
+        synchronized void cancel() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        private void expire(String reason) {
+            expiredReason = reason;
+            try {
+                body.close();
+            } catch (IOException e) {
+                log.debug("Closing expired Gemini response failed", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    private static InputStream bodyStream(HttpResponse<InputStream> response) throws IOException {
+        boolean gzipped = response.headers()
+                .firstValue(HttpHeaders.CONTENT_ENCODING)
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzipped ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    // Maps an error status onto the same exceptions RestTemplate raises
+    private static RuntimeException errorFor(HttpResponse<?> response, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+
+        if (status.is4xxClientError()) {
+            return HttpClientErrorException.create(status, "Gemini returned " + status.value(),
+                    headers, body, StandardCharsets.UTF_8);
+        }
+        return HttpServerErrorException.create(status, "Gemini returned " + status.value(),
+                headers, body, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,183 @@
+package com.reviewdashboard.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// In-process lexicon classifier that answers clear-cut reviews without a Gemini call.
+// Word weights are scaled by intensifiers, flipped by a preceding negation and discounted
+// before a "but"; the confidence combines how one-sided and how strong the evidence is.
+// Its label is also the degraded answer for reviews Gemini never classified.
+@Component
+public class LocalSentimentClassifier {
+
+    // Words after a negation that it still applies to
+    private static final int NEGATION_SCOPE = 3;
+
+    // Weight kept by a negated word, with the opposite sign ("not bad" is only mildly positive)
+    private static final double NEGATION_FACTOR = 0.5;
+
+    // Weight kept by words before a contrast; the part after "but" usually carries the verdict
+    private static final double BEFORE_CONTRAST_FACTOR = 0.5;
+
+    // Below this share of one-sided evidence the label is NEUTRAL
+    private static final double NEUTRAL_POLARITY = 0.2;
+
+    private static final Set<String> NEGATIONS = Set.of(
+            "not", "no", "never", "nothing", "hardly", "barely", "without", "cannot", "nor",
+            "dont", "doesnt", "didnt", "isnt", "wasnt", "arent", "werent", "cant", "couldnt", "wont",
+            "wouldnt", "shouldnt", "havent", "hasnt");
+    private static final Set<String> CONTRASTS = Set.of("but", "however", "although", "though", "yet");
+    private static final Map<String, Double> MODIFIERS = Map.of(
+            "very", 1.5, "really", 1.5, "extremely", 2.0, "so", 1.3, "super", 1.5,
+            "absolutely", 1.8, "totally", 1.5, "slightly", 0.5, "somewhat", 0.5, "fairly", 0.7);
+
+    private final boolean enabled;
+    private final double minConfidence;
+    private final int maxWords;
+    private final Map<String, Double> lexicon;
+
+    public LocalSentimentClassifier(@Value("${review.local-classifier.enabled:true}") boolean enabled,
+                                    @Value("${review.local-classifier.min-confidence:0.75}") double minConfidence,
+                                    @Value("${review.local-classifier.max-words:40}") int maxWords,
+                                    @Value("${review.local-classifier.lexicon:classpath:sentiment-lexicon.txt}") Resource lexicon) {
+        this.enabled = enabled;
+        this.minConfidence = minConfidence;
+        this.maxWords = maxWords;
+        try (InputStream in = lexicon.getInputStream()) {
+            this.lexicon = readLexicon(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read sentiment lexicon " + lexicon, e);
+        }
+    }
+
+    // Label for a review that can be classified with enough confidence, or null to ask the model
+    public String resolve(String text) {
+        if (!enabled)
+            return null;
+
+        Classification result = classify(text);
+        return result.getConfidence() >= minConfidence ? result.getSentiment() : null;
+    }
+
+    public Classification classify(String text) {
+        String[] tokens = text.toLowerCase(Locale.ROOT).split("[^\\p{L}']+");
+
+        double positive = 0;
+        double negative = 0;
+        double positiveBeforeContrast = 0;
+        double negativeBeforeContrast = 0;
+        int words = 0;
+        int negatedFor = 0;
+        double modifier = 1.0;
+
+        for (String raw : tokens) {
+            if (raw.isEmpty())
+                continue;
+            words++;
+            String token = raw.replace("'", "");
+
+            if (CONTRASTS.contains(token)) {
+                positiveBeforeContrast += positive;
+                negativeBeforeContrast += negative;
+                positive = 0;
+                negative = 0;
+                negatedFor = 0;
+                modifier = 1.0;
+                continue;
+            }
+            if (NEGATIONS.contains(token) || raw.endsWith("n't")) {
+                negatedFor = NEGATION_SCOPE;
+                continue;
+            }
+            Double scale = MODIFIERS.get(token);
+            if (scale != null) {
+                modifier *= scale;
+                continue;
+            }
+
+            Double weight = lexicon.get(token);
+            if (weight != null) {
+                double value = weight * modifier;
+                if (negatedFor > 0) {
+                    value = -value * NEGATION_FACTOR;
+                }
+                if (value > 0) {
+                    positive += value;
+                } else {
+                    negative -= value;
+                }
+            }
+            modifier = 1.0;
+            if (negatedFor > 0) {
+                negatedFor--;
+            }
+        }
+
+        positive += positiveBeforeContrast * BEFORE_CONTRAST_FACTOR;
+        negative += negativeBeforeContrast * BEFORE_CONTRAST_FACTOR;
+
+        // Exclamation marks strengthen whatever was said
+        double emphasis = 1.0 + 0.1 * Math.min(3, text.chars().filter(c -> c == '!').count());
+        positive *= emphasis;
+        negative *= emphasis;
+
+        double evidence = positive + negative;
+        if (evidence == 0)
+            return new Classification("NEUTRAL", 0.0);
+
+        double polarity = (positive - negative) / evidence;
+        double strength = Math.max(positive, negative);
+        double confidence = Math.abs(polarity) * strength / (strength + 1.0);
+        // Long reviews tend to be nuanced in ways a word list misses
+        if (words > maxWords) {
+            confidence *= (double) maxWords / words;
+        }
+
+        // Mixed or faint evidence ("it's okay") reads as NEUTRAL
+        String sentiment = Math.abs(polarity) < NEUTRAL_POLARITY || strength < 1.0 ? "NEUTRAL"
+                : polarity > 0 ? "POSITIVE" : "NEGATIVE";
+        return new Classification(sentiment, confidence);
+    }
+
+    static Map<String, Double> readLexicon(InputStream in) throws IOException {
+        Map<String, Double> weights = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            String[] parts = line.split("\\s+");
+            if (parts.length == 2) {
+                weights.put(parts[0].toLowerCase(Locale.ROOT).replace("'", ""), Double.parseDouble(parts[1]));
+            }
+        }
+        return weights;
+    }
+
+    // Label with a confidence between 0 (no usable evidence) and 1
+    public static class Classification {
+        private final String sentiment;
+        private final double confidence;
+
+        public Classification(String sentiment, double confidence) {
+            this.sentiment = sentiment;
+            this.confidence = confidence;
+        }
+
+        public String getSentiment() { return sentiment; }
+        public double getConfidence() { return confidence; }
+    }
+}
@@ -0,0 +1,84 @@
+package com.reviewdashboard.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Groups near-identical reviews ("5 stars, fast shipping!" / "5 stars fast shipping") so
+// each group is classified once. A review joins the first cluster whose representative's
+// SimHash is within maxDistance bits and whose guard label agrees, otherwise it starts one.
+// Reviews without words (emoji or punctuation only) have no usable fingerprint and always
+// stay on their own.
+final class NearDuplicateClusterer {
+
+    private final int maxDistance;
+
+    NearDuplicateClusterer(int maxDistance) {
+        this.maxDistance = maxDistance;
+    }
+
+    // guard gives a label two members must share, e.g. the lexicon sentiment, so that
+    // templated reviews differing only in "great" / "terrible" are never merged
+    List<Cluster> cluster(List<String> texts, Function<String, String> guard) {
+        SimHashIndex<Cluster> index = new SimHashIndex<>(maxDistance, Integer.MAX_VALUE);
+        List<Cluster> clusters = new ArrayList<>();
+
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (!SimHashIndex.hasWords(text)) {
+                clusters.add(singleton(i));
+                continue;
+            }
+            long fingerprint = SimHashIndex.fingerprint(text);
+            String label = guard.apply(text);
+
+            Cluster cluster = index.findNear(fingerprint, label);
+            if (cluster == null) {
+                cluster = new Cluster(i, fingerprint, label, true);
+                index.add(fingerprint, label, cluster);
+                clusters.add(cluster);
+            }
+            cluster.members.add(i);
+        }
+        return clusters;
+    }
+
+    // One cluster per text, for when clustering is switched off
+    static List<Cluster> singletons(int count) {
+        List<Cluster> clusters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clusters.add(singleton(i));
+        }
+        return clusters;
+    }
+
+    private static Cluster singleton(int position) {
+        Cluster cluster = new Cluster(position, 0L, null, false);
+        cluster.members.add(position);
+        return cluster;
+    }
+
+    static final class Cluster {
+        // Positions in the clustered list; the representative is the first member
+        private final int representative;
+        private final long fingerprint;
+        private final String guard;
+        // False when the fingerprint means nothing; such a cluster's label is never shared
+        private final boolean indexable;
+        private final List<Integer> members = new ArrayList<>(1);
+
+        Cluster(int representative, long fingerprint, String guard, boolean indexable) {
+            this.representative = representative;
+            this.fingerprint = fingerprint;
+            this.guard = guard;
+            this.indexable = indexable;
+        }
+
+        int getRepresentative() { return representative; }
+        long getFingerprint() { return fingerprint; }
+        String getGuard() { return guard; }
+        boolean isIndexable() { return indexable; }
+        List<Integer> getMembers() { return members; }
+        int size() { return members.size(); }
+    }
+}
@@ -0,0 +1,218 @@
+package com.reviewdashboard.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Micrometer meters for the upload pipeline and the Gemini client.
+// Exposed through /actuator/metrics and /actuator/prometheus.
+@Component
+public class PipelineMetrics {
+
+    // Stage names used as the 'stage' tag of review.pipeline.stage
+    public static final String PARSE = "parse";
+    public static final String PERSIST = "persist";
+    public static final String BACKPRESSURE = "backpressure";
+    public static final String QUEUE_WAIT = "queue-wait";
+    public static final String ANALYZE_CHUNK = "analyze-chunk";
+    public static final String PERSIST_RESULTS = "persist-results";
+    public static final String SUMMARY = "summary";
+    public static final String SAVE = "save";
+
+    // Outcomes used as the 'outcome' tag of sentiment.local
+    public static final String LOCAL_RESOLVED = "resolved";
+    public static final String LOCAL_FALLBACK = "fallback";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> geminiTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> retryCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> localSentimentCounters = new ConcurrentHashMap<>();
+
+    private final Counter throttled;
+    private final Timer firstFragment;
+    private final DistributionSummary promptChars;
+    private final DistributionSummary requestBytes;
+    private final DistributionSummary responseChars;
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary outputTokens;
+
+    private final Counter reviewsIngested;
+    private final Counter reviewsAnalyzed;
+    private final Counter nearDuplicates;
+    private final DistributionSummary coalescedRequests;
+    private final DistributionSummary coalescedReviews;
+    private final Timer batchDuration;
+    private final DistributionSummary batchThroughput;
+
+    public PipelineMetrics(MeterRegistry registry,
+                           AnalysisScheduler analysisScheduler,
+                           AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.registry = registry;
+
+        Gauge.builder("analysis.queue.depth", analysisScheduler, AnalysisScheduler::getQueueDepth)
+                .description("Chunk analysis tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder("analysis.batches.active", analysisScheduler, AnalysisScheduler::getActiveBatches)
+                .description("Uploads admitted and not yet summarized")
+                .register(registry);
+        Gauge.builder("gemini.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(registry);
+        Gauge.builder("gemini.concurrency.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(registry);
+
+        this.throttled = Counter.builder("gemini.requests.throttled")
+                .description("Gemini responses with HTTP 429")
+                .register(registry);
+        this.firstFragment = Timer.builder("gemini.stream.first-fragment")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.promptChars = DistributionSummary.builder("gemini.prompt.size")
+                .baseUnit("chars")
+                .register(registry);
+        this.requestBytes = DistributionSummary.builder("gemini.request.size")
+                .baseUnit("bytes")
+                .register(registry);
+        this.responseChars = DistributionSummary.builder("gemini.response.size")
+                .baseUnit("chars")
+                .register(registry);
+        this.promptTokens = DistributionSummary.builder("gemini.prompt.tokens")
+                .baseUnit("tokens")
+                .register(registry);
+        this.outputTokens = DistributionSummary.builder("gemini.response.tokens")
+                .baseUnit("tokens")
+                .register(registry);
+
+        this.reviewsIngested = Counter.builder("review.reviews.ingested").register(registry);
+        this.reviewsAnalyzed = Counter.builder("review.reviews.analyzed").register(registry);
+        this.nearDuplicates = Counter.builder("review.reviews.near-duplicates")
+                .description("Reviews labelled through another review's classification")
+                .register(registry);
+        this.coalescedRequests = DistributionSummary.builder("gemini.coalesce.requests")
+                .description("Small sentiment requests merged into one coalesced round")
+                .register(registry);
+        this.coalescedReviews = DistributionSummary.builder("gemini.coalesce.reviews")
+                .description("Distinct reviews classified by one coalesced round")
+                .register(registry);
+        this.batchDuration = Timer.builder("review.batch.duration")
+                .description("Upload start to saved summary")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.batchThroughput = DistributionSummary.builder("review.batch.throughput")
+                .baseUnit("reviews/s")
+                .register(registry);
+    }
+
+    public void recordStage(String stage, long nanos) {
+        stageTimers.computeIfAbsent(stage, s -> Timer.builder("review.pipeline.stage")
+                        .tag("stage", s)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeStage(String stage, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void timeStage(String stage, Runnable call) {
+        long start = System.nanoTime();
+        try {
+            call.run();
+        } finally {
+            recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    // One HTTP attempt; mode is unary or stream, outcome is success, throttled or error
+    public void recordGeminiCall(String mode, String outcome, long nanos) {
+        geminiTimers.computeIfAbsent(mode + "/" + outcome, k -> Timer.builder("gemini.request")
+                        .tag("mode", mode)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if ("throttled".equals(outcome)) {
+            throttled.increment();
+        }
+    }
+
+    public void countGeminiRetry(String reason) {
+        retryCounters.computeIfAbsent(reason, r -> Counter.builder("gemini.retries")
+                        .tag("reason", r)
+                        .register(registry))
+                .increment();
+    }
+
+    public void recordFirstFragment(long nanos) {
+        firstFragment.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordGeminiRequest(int promptLength, int bodyBytes) {
+        promptChars.record(promptLength);
+        requestBytes.record(bodyBytes);
+    }
+
+    public void recordGeminiResponse(int responseLength) {
+        responseChars.record(responseLength);
+    }
+
+    // Token counts reported by the API in usageMetadata
+    public void recordGeminiTokens(long prompt, long output) {
+        if (prompt > 0) {
+            promptTokens.record(prompt);
+        }
+        if (output > 0) {
+            outputTokens.record(output);
+        }
+    }
+
+    // Reviews labelled by the local classifier: confidently, or because Gemini gave no answer
+    public void countLocalSentiments(String outcome, int reviews) {
+        if (reviews == 0)
+            return;
+        localSentimentCounters.computeIfAbsent(outcome, o -> Counter.builder("sentiment.local")
+                        .tag("outcome", o)
+                        .register(registry))
+                .increment(reviews);
+    }
+
+    public void countIngested(int reviews) {
+        reviewsIngested.increment(reviews);
+    }
+
+    public void countAnalyzed(int reviews) {
+        reviewsAnalyzed.increment(reviews);
+    }
+
+    public void countNearDuplicates(int reviews) {
+        nearDuplicates.increment(reviews);
+    }
+
+    public void recordCoalescedRound(int requests, int reviews) {
+        coalescedRequests.record(requests);
+        coalescedReviews.record(reviews);
+    }
+
+    public void recordBatchCompleted(long reviews, long nanos) {
+        batchDuration.record(nanos, TimeUnit.NANOSECONDS);
+        double seconds = Duration.ofNanos(nanos).toMillis() / 1000.0;
+        if (seconds > 0) {
+            batchThroughput.record(reviews / seconds);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.reviewdashboard.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits reviews into sentiment requests that fit an input and output token budget.
+// Token counts are estimated from character length (about 4 characters per token).
+@Component
+public class PromptPacker {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    // Index prefix, separator and newline around every review line
+    private static final int PER_REVIEW_OVERHEAD_TOKENS = 3;
+
+    // Fixed instructions at the top of the sentiment prompt
+    private static final int PROMPT_OVERHEAD_TOKENS = 80;
+
+    // One letter of the compact answer, with the group separators and count rounded up
+    private static final int COMPACT_OUTPUT_TOKENS_PER_REVIEW = 1;
+
+    private final int maxInputTokens;
+    private final int maxOutputTokens;
+    private final int outputTokensPerReview;
+    private final int maxReviewChars;
+
+    public PromptPacker(@Value("${gemini.prompt.max-input-tokens:32000}") int maxInputTokens,
+                        @Value("${gemini.prompt.max-output-tokens:8192}") int maxOutputTokens,
+                        @Value("${gemini.prompt.output-tokens-per-review:16}") int outputTokensPerReview,
+                        @Value("${gemini.prompt.max-review-chars:2000}") int maxReviewChars,
+                        @Value("${gemini.sentiment.format:compact}") String sentimentFormat) {
+        this.maxInputTokens = maxInputTokens;
+        this.maxOutputTokens = maxOutputTokens;
+        this.outputTokensPerReview = "json".equalsIgnoreCase(sentimentFormat)
+                ? outputTokensPerReview : COMPACT_OUTPUT_TOKENS_PER_REVIEW;
+        this.maxReviewChars = maxReviewChars;
+    }
+
+    public int getMaxOutputTokens() {
+        return maxOutputTokens;
+    }
+
+    // Greedily fills each pack until the next review would exceed either budget
+    public List<List<String>> pack(List<String> reviews) {
+        List<List<String>> packs = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int inputTokens = PROMPT_OVERHEAD_TOKENS;
+        int outputTokens = 0;
+
+        for (String review : reviews) {
+            int reviewTokens = estimateTokens(truncate(review)) + PER_REVIEW_OVERHEAD_TOKENS;
+
+            boolean inputFull = inputTokens + reviewTokens > maxInputTokens;
+            boolean outputFull = outputTokens + outputTokensPerReview > maxOutputTokens;
+            if (!current.isEmpty() && (inputFull || outputFull)) {
+                packs.add(current);
+                current = new ArrayList<>();
+                inputTokens = PROMPT_OVERHEAD_TOKENS;
+                outputTokens = 0;
+            }
+
+            current.add(review);
+            inputTokens += reviewTokens;
+            outputTokens += outputTokensPerReview;
+        }
+
+        if (!current.isEmpty()) {
+            packs.add(current);
+        }
+        return packs;
+    }
+
+    // Collapses whitespace runs (newlines included) and cuts pathological reviews down to the
+    // configured length
+    public String truncate(String review) {
+        String text = collapseWhitespace(review);
+        if (text.length() > maxReviewChars) {
+            int end = maxReviewChars;
+            // Do not split a surrogate pair
+            if (Character.isHighSurrogate(text.charAt(end - 1)))
+                end--;
+            text = text.substring(0, end);
+        }
+        return text;
+    }
+
+    // Single spaces between words and none at either end; a clean review is returned as is
+    static String collapseWhitespace(String review) {
+        StringBuilder collapsed = null;
+        boolean pendingSpace = false;
+        for (int i = 0; i < review.length(); i++) {
+            char c = review.charAt(i);
+            boolean space = Character.isWhitespace(c);
+            if (collapsed == null) {
+                // Nothing to change so far: a lone ' ' between two words is fine
+                boolean clean = !space || (c == ' ' && i > 0 && i + 1 < review.length()
+                        && !Character.isWhitespace(review.charAt(i + 1)));
+                if (clean)
+                    continue;
+                collapsed = new StringBuilder(review.length()).append(review, 0, i);
+            }
+            if (space) {
+                pendingSpace = collapsed.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    collapsed.append(' ');
+                    pendingSpace = false;
+                }
+                collapsed.append(c);
+            }
+        }
+        return collapsed == null ? review : collapsed.toString();
+    }
+
+    public static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
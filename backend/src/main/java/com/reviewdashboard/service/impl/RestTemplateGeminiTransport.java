@@ -0,0 +1,68 @@
+package com.reviewdashboard.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Previous transport: RestTemplate over HttpURLConnection, without pooling control.
+// Kept for comparison; select with gemini.http.transport=rest-template.
+@Component
+@ConditionalOnProperty(name = "gemini.http.transport", havingValue = "rest-template")
+public class RestTemplateGeminiTransport implements GeminiTransport {
+
+    private final RestTemplate restTemplate;
+
+    public RestTemplateGeminiTransport(@Value("${gemini.http.connect-timeout-ms:10000}") int connectTimeoutMs,
+                                       @Value("${gemini.http.read-timeout-ms:120000}") int readTimeoutMs) {
+        // Configure RestTemplate with timeout to avoid hanging requests
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMs);
+        factory.setReadTimeout(readTimeoutMs);
+
+        this.restTemplate = new RestTemplate(factory);
+    }
+
+    @Override
+    public String postJson(String url, String apiKey, byte[] jsonBody, Duration timeout) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("x-goog-api-key", apiKey);
+
+        return restTemplate.postForObject(url, new HttpEntity<>(jsonBody, headers), String.class);
+    }
+
+    @Override
+    public void streamJson(String url, String apiKey, byte[] jsonBody, Duration timeout, Consumer<String> lines) {
+        restTemplate.execute(url, HttpMethod.POST, request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getHeaders().set("x-goog-api-key", apiKey);
+            request.getBody().write(jsonBody);
+        }, response -> {
+            // Each read is bounded by the read timeout; the whole stream by the attempt timeout
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.accept(line);
+                    if (System.nanoTime() > deadline)
+                        throw new HttpTimeoutException("Gemini stream did not complete before its deadline");
+                }
+            }
+            return null;
+        });
+    }
+}
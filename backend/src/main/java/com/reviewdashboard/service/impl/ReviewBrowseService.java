@@ -0,0 +1,76 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.ReviewItem;
+import com.reviewdashboard.dto.ReviewPage;
+import com.reviewdashboard.exception.InvalidRequestException;
+import com.reviewdashboard.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Pages through the reviews of one batch by id (keyset), so every page costs one index
+// range scan however deep it is, instead of skipping OFFSET rows
+@Service
+public class ReviewBrowseService {
+
+    private static final Set<String> SENTIMENTS = Set.of("POSITIVE", "NEUTRAL", "NEGATIVE", "PENDING");
+
+    private final ReviewRepository reviewRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReviewBrowseService(ReviewRepository reviewRepository,
+                               @Value("${review.browse.default-page-size:50}") int defaultPageSize,
+                               @Value("${review.browse.max-page-size:500}") int maxPageSize) {
+        this.reviewRepository = reviewRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Reviews after the cursor id, optionally of one sentiment; the text is only read if asked for
+    @Transactional(readOnly = true)
+    public ReviewPage browse(String batchId, String sentiment, Long after, Integer limit, boolean withText) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize)
+            throw new InvalidRequestException("limit must be between 1 and " + maxPageSize);
+
+        String label = sentimentLabel(sentiment);
+
+        long afterId = after == null ? 0L : after;
+        // One extra row tells whether another page follows
+        Pageable page = PageRequest.ofSize(pageSize + 1);
+
+        List<ReviewItem> rows;
+        if (label == null) {
+            rows = withText
+                    ? reviewRepository.browseWithText(batchId, afterId, page)
+                    : reviewRepository.browse(batchId, afterId, page);
+        } else {
+            rows = withText
+                    ? reviewRepository.browseWithTextBySentiment(batchId, label, afterId, page)
+                    : reviewRepository.browseBySentiment(batchId, label, afterId, page);
+        }
+
+        if (rows.size() <= pageSize)
+            return new ReviewPage(rows, null);
+
+        List<ReviewItem> items = rows.subList(0, pageSize);
+        return new ReviewPage(List.copyOf(items), items.get(pageSize - 1).getId());
+    }
+
+    // Canonical label of a sentiment filter, or null for none
+    static String sentimentLabel(String sentiment) {
+        if (sentiment == null || sentiment.isBlank())
+            return null;
+        String label = sentiment.trim().toUpperCase(Locale.ROOT);
+        if (!SENTIMENTS.contains(label))
+            throw new InvalidRequestException("Unknown sentiment: " + sentiment);
+        return label;
+    }
+}
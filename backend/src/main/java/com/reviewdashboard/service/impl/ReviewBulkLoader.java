@@ -0,0 +1,160 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.entity.Review;
+import com.reviewdashboard.repository.ReviewRepository;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+// Writes review chunks with as few database round trips as possible
+@lombok.extern.slf4j.Slf4j
+@Component
+public class ReviewBulkLoader {
+
+    public enum Mode {
+        // Plain repository saveAll (one INSERT per row with IDENTITY keys)
+        JPA,
+        // Batched INSERTs, rewritten into multi-row statements by the driver
+        JDBC_BATCH,
+        // PostgreSQL COPY FROM STDIN
+        COPY
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reviews (id, review_text, product_id, sentiment, batch_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String COPY_SQL =
+            "COPY reviews (id, review_text, product_id, sentiment, batch_id, created_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // Reserves a block of ids from the sequence backing reviews.id in one round trip
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('reviews', 'id')) FROM generate_series(1, ?)";
+
+    private static final String UPDATE_SENTIMENT_SQL =
+            "UPDATE reviews SET sentiment = ? WHERE id = ?";
+
+    private final ReviewRepository reviewRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+
+    public ReviewBulkLoader(ReviewRepository reviewRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${review.persist.mode:jdbc-batch}") String mode) {
+        this.reviewRepository = reviewRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        log.info("Review persist mode: {}", this.mode);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // Inserts a chunk using the configured mode; ids are set on the given entities
+    @Transactional
+    public List<Review> insert(List<Review> reviews) {
+        return insert(reviews, mode);
+    }
+
+    @Transactional
+    public List<Review> insert(List<Review> reviews, Mode insertMode) {
+        if (reviews.isEmpty())
+            return reviews;
+
+        if (insertMode == Mode.JPA)
+            return reviewRepository.saveAll(reviews);
+
+        assignIds(reviews);
+
+        if (insertMode == Mode.COPY) {
+            copyIn(reviews);
+        } else {
+            batchInsert(reviews);
+        }
+        return reviews;
+    }
+
+    // Writes the sentiment of already persisted reviews in one batch
+    @Transactional
+    public void updateSentiments(List<Review> reviews) {
+        jdbcTemplate.batchUpdate(UPDATE_SENTIMENT_SQL, reviews, reviews.size(), (ps, review) -> {
+            ps.setString(1, review.getSentiment());
+            ps.setLong(2, review.getId());
+        });
+    }
+
+    private void assignIds(List<Review> reviews) {
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, reviews.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            review.setId(ids.get(i));
+            if (review.getCreatedAt() == null) {
+                review.setCreatedAt(now);
+            }
+        }
+    }
+
+    private void batchInsert(List<Review> reviews) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, reviews, reviews.size(), (ps, review) -> {
+            ps.setLong(1, review.getId());
+            ps.setString(2, review.getReviewText());
+            ps.setString(3, review.getProductId());
+            ps.setString(4, review.getSentiment());
+            ps.setString(5, review.getBatchId());
+            ps.setTimestamp(6, Timestamp.valueOf(review.getCreatedAt()));
+        });
+    }
+
+    private void copyIn(List<Review> reviews) {
+        StringBuilder csv = new StringBuilder(reviews.size() * 128);
+        for (Review review : reviews) {
+            csv.append(review.getId()).append(',');
+            appendCsvField(csv, review.getReviewText()).append(',');
+            appendCsvField(csv, review.getProductId()).append(',');
+            appendCsvField(csv, review.getSentiment()).append(',');
+            appendCsvField(csv, review.getBatchId()).append(',');
+            csv.append(Timestamp.valueOf(review.getCreatedAt())).append('\n');
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("COPY into reviews failed", e);
+            }
+        });
+    }
+
+    // Quotes a value for COPY csv format; an unquoted empty field is NULL
+    private static StringBuilder appendCsvField(StringBuilder csv, String value) {
+        if (value == null)
+            return csv;
+
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
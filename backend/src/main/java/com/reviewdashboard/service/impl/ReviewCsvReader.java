@@ -0,0 +1,58 @@
+package com.reviewdashboard.service.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Reads review texts from a CSV stream one row at a time
+public class ReviewCsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private boolean headerSkipped;
+
+    public ReviewCsvReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    // Returns the next non-blank review text, or null at end of input
+    public String nextReviewText() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            // Skip CSV header
+            if (!headerSkipped) {
+                headerSkipped = true;
+                continue;
+            }
+
+            String text = parseReviewText(line);
+            if (text != null)
+                return text;
+        }
+        return null;
+    }
+
+    // Extracts the first column of a CSV row, or null if it is blank
+    public static String parseReviewText(String line) {
+        // Split CSV row safely (handles quoted commas)
+        String[] row = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+
+        if (row.length == 0 || row[0].isBlank())
+            return null;
+
+        String text = row[0];
+
+        // Remove surrounding quotes if present
+        if (text.length() > 1 && text.startsWith("\"") && text.endsWith("\"")) {
+            text = text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
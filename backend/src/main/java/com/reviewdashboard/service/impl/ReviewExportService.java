@@ -0,0 +1,240 @@
+package com.reviewdashboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reviewdashboard.exception.InvalidRequestException;
+import com.reviewdashboard.repository.ReviewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+// Streams the analyzed reviews of a batch as CSV or NDJSON. Rows come from a server-side
+// cursor (fetch-size rows per round trip, inside a read-only transaction as PostgreSQL
+// requires) and are written as they arrive, so memory stays flat whatever the batch size.
+@lombok.extern.slf4j.Slf4j
+@Service
+public class ReviewExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT id, product_id, sentiment, review_text FROM reviews WHERE batch_id = ? ORDER BY id";
+
+    private static final String EXPORT_BY_SENTIMENT_SQL =
+            "SELECT id, product_id, sentiment, review_text FROM reviews WHERE batch_id = ? AND sentiment = ? ORDER BY id";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewRepository reviewRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ReviewExportService(JdbcTemplate jdbcTemplate,
+                               ReviewRepository reviewRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${review.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reviewRepository = reviewRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public Format formatOf(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown export format: " + format + " (use csv or ndjson)");
+        }
+    }
+
+    // Canonical label of a sentiment filter, or null for none; rejects unknown labels
+    public String sentimentOf(String sentiment) {
+        return ReviewBrowseService.sentimentLabel(sentiment);
+    }
+
+    public boolean hasReviews(String batchId) {
+        return reviewRepository.existsByBatchId(batchId);
+    }
+
+    // Writes the reviews (id, productId, sentiment, text) in id order; sentiment may be null
+    @Transactional(readOnly = true)
+    public void export(String batchId, String sentiment, Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        RowWriter writer = format == Format.NDJSON ? new NdjsonWriter(buffered) : new CsvWriter(buffered);
+
+        long[] rows = new long[1];
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        sentiment == null ? EXPORT_SQL : EXPORT_BY_SENTIMENT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Without a fetch size the driver reads the whole result before returning
+                ps.setFetchSize(fetchSize);
+                ps.setString(1, batchId);
+                if (sentiment != null) {
+                    ps.setString(2, sentiment);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                writer.write(rs);
+                // Get the first row to the client right away; later ones go out as the buffer fills
+                if (rows[0]++ == 0) {
+                    writer.flush();
+                }
+            });
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed with the transaction
+            throw e.getCause();
+        }
+
+        log.info("Exported {} reviews of batch {} as {} in {} ms", rows[0], batchId, format,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException;
+
+        void flush();
+
+        void finish() throws IOException;
+    }
+
+    // RFC 4180: fields with commas, quotes or line breaks are quoted, quotes doubled
+    private static final class CsvWriter implements RowWriter {
+        private final OutputStream out;
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvWriter(OutputStream out) {
+            this.out = out;
+            line.append("id,productId,sentiment,reviewText\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            line.append(rs.getLong(1)).append(',');
+            appendField(rs.getString(2));
+            line.append(',');
+            appendField(rs.getString(3));
+            line.append(',');
+            appendField(rs.getString(4));
+            line.append("\r\n");
+            try {
+                out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            line.setLength(0);
+        }
+
+        private void appendField(String value) {
+            if (value == null)
+                return;
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        @Override
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            // An empty export still gets its header
+            if (line.length() > 0) {
+                out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            out.flush();
+        }
+    }
+
+    // One JSON object per line
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // Lines are separated by '\n' below instead of the default space between root values
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("id", rs.getLong(1));
+                json.writeStringField("productId", rs.getString(2));
+                json.writeStringField("sentiment", rs.getString(3));
+                json.writeStringField("reviewText", rs.getString(4));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            try {
+                json.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+}
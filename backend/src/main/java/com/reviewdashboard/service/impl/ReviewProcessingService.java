@@ -1,207 +1,697 @@
 package com.reviewdashboard.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.reviewdashboard.dto.SentimentResult;
+import com.reviewdashboard.dto.BatchProgress;
 import com.reviewdashboard.dto.SummaryResult;
+import com.reviewdashboard.entity.AnalysisChunk;
+import com.reviewdashboard.entity.AnalysisJob;
 import com.reviewdashboard.entity.AnalysisSummary;
 import com.reviewdashboard.entity.Review;
-import com.reviewdashboard.exception.ResourceNotFoundException;
 import com.reviewdashboard.repository.AnalysisSummaryRepository;
 import com.reviewdashboard.repository.ReviewRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.InputStreamReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @lombok.extern.slf4j.Slf4j
 @Service
 public class ReviewProcessingService {
 
-    // Repository to store individual reviews
+    // Bulk writer for review rows
+    private final ReviewBulkLoader reviewLoader;
+
+    // Final per-sentiment counts
     private final ReviewRepository reviewRepository;
 
+    // Job and chunk checkpoints for resuming after a restart
+    private final AnalysisJobStore jobStore;
+
     // Repository to store final analysis summary
     private final AnalysisSummaryRepository summaryRepository;
 
-    // Gemini service for sentiment and summary generation
+    // Gemini service for sentiment analysis
     private final GeminiServiceImpl geminiService;
 
+    // Map-reduce summary over the batch sample
+    private final HierarchicalSummarizer summarizer;
+
+    // Dedicated pool and admission control for analysis work
+    private final AnalysisScheduler analysisScheduler;
+
     // Used to convert objects to JSON
     private final ObjectMapper objectMapper;
 
-    public ReviewProcessingService(ReviewRepository reviewRepository,
+    // Stage timers and throughput meters
+    private final PipelineMetrics metrics;
+
+    // Live progress for status and SSE clients
+    private final BatchProgressRegistry progressRegistry;
+
+    // Labels reviews Gemini never answered
+    private final LocalSentimentClassifier localClassifier;
+
+    // Serialized summaries of finished batches
+    private final SummaryResponseCache summaryCache;
+
+    // Number of reviews persisted and analyzed together
+    @Value("${review.ingest.chunk-size:1000}")
+    private int chunkSize;
+
+    // Chunks of one upload allowed to wait for analysis before parsing pauses
+    @Value("${review.ingest.max-pending-chunks:16}")
+    private int maxPendingChunks;
+
+    // Sentiment results written to the database per round trip while a chunk is analyzed
+    @Value("${review.analysis.persist-batch-size:100}")
+    private int persistBatchSize;
+
+    // Summary input: reservoir sample per sentiment, or across the whole batch
+    @Value("${review.summary.stratified:true}")
+    private boolean stratifiedSummary;
+
+    // Reviews kept per stratum for the summary
+    @Value("${review.summary.sample-size:300}")
+    private int summarySampleSize;
+
+    // Near-duplicate clustering: reviews whose SimHash differs in at most max-distance bits
+    // (and that the lexicon labels alike) share one classification
+    @Value("${review.dedup.enabled:true}")
+    private boolean dedupEnabled;
+
+    @Value("${review.dedup.max-distance:3}")
+    private int dedupMaxDistance;
+
+    // Cluster labels remembered per batch for later chunks
+    @Value("${review.dedup.max-indexed-clusters:20000}")
+    private int dedupMaxIndexed;
+
+    // Chunks are claimed from the database by any node instead of analyzed where they were uploaded
+    @Value("${review.distributed.enabled:false}")
+    private boolean distributed;
+
+    // Batches this node is summarizing in distributed mode; their jobs are kept fresh by the heartbeat
+    private final Set<String> summarizing = ConcurrentHashMap.newKeySet();
+
+    public ReviewProcessingService(ReviewBulkLoader reviewLoader,
+                                   ReviewRepository reviewRepository,
+                                   AnalysisJobStore jobStore,
                                    AnalysisSummaryRepository summaryRepository,
                                    GeminiServiceImpl geminiService,
-                                   ObjectMapper objectMapper) {
+                                   HierarchicalSummarizer summarizer,
+                                   AnalysisScheduler analysisScheduler,
+                                   ObjectMapper objectMapper,
+                                   PipelineMetrics metrics,
+                                   BatchProgressRegistry progressRegistry,
+                                   LocalSentimentClassifier localClassifier,
+                                   SummaryResponseCache summaryCache) {
+        this.reviewLoader = reviewLoader;
         this.reviewRepository = reviewRepository;
+        this.jobStore = jobStore;
         this.summaryRepository = summaryRepository;
         this.geminiService = geminiService;
+        this.summarizer = summarizer;
+        this.analysisScheduler = analysisScheduler;
         this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.progressRegistry = progressRegistry;
+        this.localClassifier = localClassifier;
+        this.summaryCache = summaryCache;
     }
 
-    // Handles CSV file upload and triggers async analysis
-    @Transactional
+    // Handles CSV file upload (plain, gzip or zstd) and triggers async analysis
     public String processFileUpload(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return processStream(in, file.getSize());
+        } catch (java.io.IOException e) {
+            log.error("CRITICAL ERROR in processFileUpload", e);
+            throw new RuntimeException("Failed to process CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    // Parses the CSV incrementally, committing and analyzing one chunk at a time.
+    // Only a bounded number of chunks is held in memory, whatever the file size.
+    public String processStream(InputStream in) {
+        return processStream(in, 0);
+    }
+
+    // Same as processStream(in); expectedBytes (0 if unknown) lets progress extrapolate the total
+    public String processStream(InputStream in, long expectedBytes) {
+        return processStream(in, expectedBytes, null);
+    }
+
+    // Same as processStream(in, expectedBytes) for a gzip or zstd body (see UploadDecoding;
+    // null detects the encoding). expectedBytes and progress count the bytes as received.
+    public String processStream(InputStream in, long expectedBytes, String encoding) {
+        // Reject before reading anything if the analysis pool is saturated
+        analysisScheduler.admit();
+
         String batchId = UUID.randomUUID().toString();
-        List<Review> reviews = new ArrayList<>();
-
-        int rowNum = 0;
-        try (java.io.BufferedReader reader =
-                     new java.io.BufferedReader(new InputStreamReader(file.getInputStream()))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                rowNum++;
-
-                // Skip CSV header
-                if (rowNum == 1)
-                    continue;
-
-                // Split CSV row safely (handles quoted commas)
-                String[] row = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-
-                if (row.length > 0 && !row[0].isBlank()) {
-                    String text = row[0];
-
-                    // Remove surrounding quotes if present
-                    if (text.startsWith("\"") && text.endsWith("\"")) {
-                        text = text.substring(1, text.length() - 1);
-                    }
-
-                    // Create review entity with PENDING sentiment
-                    reviews.add(Review.builder()
-                            .reviewText(text)
-                            .productId("UNKNOWN")
-                            .batchId(batchId)
-                            .sentiment("PENDING")
-                            .build());
+        BatchAnalysisState state = new BatchAnalysisState(batchId,
+                new StratifiedReviewSampler(stratifiedSummary, summarySampleSize), expectedBytes);
+        keepClusterLabels(state);
+        try {
+            if (distributed) {
+                progressRegistry.register(state, this::refreshFromStore);
+            } else {
+                progressRegistry.register(state);
+            }
+            jobStore.createJob(batchId);
+        } catch (RuntimeException e) {
+            // Nothing was ingested yet: give the slot back instead of leaking it
+            progressRegistry.unregister(batchId);
+            analysisScheduler.release();
+            throw e;
+        }
+        Semaphore pendingChunks = new Semaphore(maxPendingChunks);
+        int chunkSeq = 0;
+
+        try (ReviewCsvReader reader = new ReviewCsvReader(
+                UploadDecoding.decode(new CountingInputStream(in, state), encoding))) {
+            List<Review> chunk = new ArrayList<>(chunkSize);
+            long parseStart = System.nanoTime();
+
+            String text;
+            while ((text = reader.nextReviewText()) != null) {
+                // Create review entity with PENDING sentiment
+                chunk.add(Review.builder()
+                        .reviewText(text)
+                        .productId("UNKNOWN")
+                        .batchId(batchId)
+                        .sentiment("PENDING")
+                        .build());
+
+                if (chunk.size() == chunkSize) {
+                    metrics.recordStage(PipelineMetrics.PARSE, System.nanoTime() - parseStart);
+                    submitChunk(state, chunkSeq++, chunk, pendingChunks);
+                    chunk = new ArrayList<>(chunkSize);
+                    parseStart = System.nanoTime();
                 }
             }
 
-            // Save all reviews first
-            reviewRepository.saveAll(reviews);
+            if (!chunk.isEmpty()) {
+                metrics.recordStage(PipelineMetrics.PARSE, System.nanoTime() - parseStart);
+                submitChunk(state, chunkSeq++, chunk, pendingChunks);
+            }
 
-            // Run analysis asynchronously
-            java.util.concurrent.CompletableFuture.runAsync(() -> {
-                try {
-                    analyzeBatch(batchId, reviews);
-                } catch (Exception e) {
-                    log.error("Async Analysis failed for batch: {}", batchId, e);
-                }
-            });
+            jobStore.markIngested(batchId, chunkSeq, state.getTotalReviews());
+        } catch (Exception e) {
+            log.error("CRITICAL ERROR while ingesting batch: {}", batchId, e);
+            saveFailureSummary(batchId, state.getTotalReviews(), e);
+            finishBatch(state, BatchAnalysisState.Phase.FAILED);
+            state.allChunksDone().whenComplete((ignored, error) -> analysisScheduler.release());
+            throw new RuntimeException("Failed to process CSV file: " + e.getMessage(), e);
+        }
 
+        if (distributed) {
+            // The slot only bounded this node's ingestion; chunks are analyzed wherever they are claimed
+            analysisScheduler.release();
+            state.advancePhase(BatchAnalysisState.Phase.ANALYZING);
+            // Every chunk may already be done, in which case no worker will see the job as ANALYZING
+            if (jobStore.tryStartSummary(batchId)) {
+                analysisScheduler.submit(() -> summarizeFromStore(batchId));
+            }
             return batchId;
+        }
+
+        state.setPhase(BatchAnalysisState.Phase.ANALYZING);
+        scheduleFinalize(state);
+        return batchId;
+    }
+
+    // Analyzes a chunk claimed by this node. The node that checkpoints the last chunk wins the
+    // move to SUMMARIZING and writes the summary from a sample read back from the database.
+    void analyzeClaimedChunk(AnalysisChunk chunk, String owner) {
+        String batchId = chunk.getBatchId();
+        // Live counts come from the checkpoints, so this state only feeds analyzeChunk
+        BatchAnalysisState state = new BatchAnalysisState(batchId, new StratifiedReviewSampler(false, 0), 0);
+        List<Review> reviews = jobStore.findPendingReviews(chunk);
+        metrics.timeStage(PipelineMetrics.ANALYZE_CHUNK, () -> analyzeChunk(state, reviews));
+
+        if (!jobStore.completeClaimedChunk(chunk.getId(), owner)) {
+            // Another node took the chunk over; its results overwrite ours with the same labels
+            log.warn("Lease on chunk {} of batch {} was lost before its checkpoint", chunk.getId(), batchId);
+            return;
+        }
+        if (jobStore.tryStartSummary(batchId)) {
+            summarizeFromStore(batchId);
+        }
+    }
+
+    // Summarizes a batch whose job this node moved (or took over) in SUMMARIZING
+    void summarizeFromStore(String batchId) {
+        summarizing.add(batchId);
+        try {
+            if (summaryRepository.findByBatchId(batchId).isPresent()) {
+                jobStore.updateState(batchId, BatchAnalysisState.Phase.COMPLETED);
+                return;
+            }
+            Optional<AnalysisJob> job = jobStore.findJob(batchId);
+            if (job.isEmpty())
+                return;
+
+            BatchAnalysisState state = new BatchAnalysisState(batchId,
+                    new StratifiedReviewSampler(stratifiedSummary, summarySampleSize), 0);
+            state.addIngested(job.get().getTotalReviews());
+            if (job.get().getCreatedAt() != null) {
+                state.restoreElapsed(Duration.between(job.get().getCreatedAt(), LocalDateTime.now()));
+            }
+            restoreSummarySample(state);
+            finalizeBatch(state);
         } catch (Exception e) {
-            log.error("CRITICAL ERROR in processFileUpload", e);
-            throw new RuntimeException("Failed to process CSV file: " + e.getMessage(), e);
+            log.error("Summary failed for batch: {}", batchId, e);
+        } finally {
+            summarizing.remove(batchId);
         }
     }
 
-    // Fetch final analysis summary by batch ID
-    public AnalysisSummary getAnalysisResults(String batchId) {
-        return summaryRepository.findByBatchId(batchId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Analysis not found for batch: " + batchId));
+    // Failure summary for an upload whose node stopped ingesting it
+    void failAbandonedBatch(String batchId) {
+        Map<String, Long> counts = countSentiments(batchId);
+        long persisted = counts.values().stream().mapToLong(Long::longValue).sum();
+        saveFailureSummary(batchId, persisted, new IllegalStateException("upload abandoned by the receiving node"));
     }
 
-    // Performs sentiment analysis and summary generation
-    private void analyzeBatch(String batchId, List<Review> reviews) {
+    Set<String> getSummarizingBatches() {
+        return Set.copyOf(summarizing);
+    }
+
+    // Continues a job interrupted by a restart. Chunks with a checkpoint are not sent to
+    // Gemini again, and within the others only reviews still PENDING are analyzed.
+    public void resumeBatch(AnalysisJob job) throws InterruptedException {
+        String batchId = job.getBatchId();
+
+        // Summary saved just before the restart: only the job state was missing
+        if (summaryRepository.findByBatchId(batchId).isPresent()) {
+            jobStore.updateState(batchId, BatchAnalysisState.Phase.COMPLETED);
+            return;
+        }
+
+        Map<String, Long> counts = countSentiments(batchId);
+
+        // The upload stream is gone and the client never received the batch id
+        if (BatchAnalysisState.Phase.INGESTING.name().equals(job.getState())) {
+            long persisted = counts.values().stream().mapToLong(Long::longValue).sum();
+            saveFailureSummary(batchId, persisted, new IllegalStateException("upload interrupted by a server restart"));
+            jobStore.updateState(batchId, BatchAnalysisState.Phase.FAILED);
+            return;
+        }
+
+        // Waits for a slot instead of rejecting; recovery runs on its own thread
+        analysisScheduler.admitWaiting();
+
+        BatchAnalysisState state = new BatchAnalysisState(batchId,
+                new StratifiedReviewSampler(stratifiedSummary, summarySampleSize), 0);
+        state.setPhase(BatchAnalysisState.Phase.ANALYZING);
+        keepClusterLabels(state);
+        state.addIngested(job.getTotalReviews());
+        state.restoreCounts(counts.getOrDefault("POSITIVE", 0L),
+                counts.getOrDefault("NEUTRAL", 0L),
+                counts.getOrDefault("NEGATIVE", 0L));
+        restoreSummarySample(state);
+        progressRegistry.register(state);
+
+        List<AnalysisChunk> pending = jobStore.findPendingChunks(batchId);
+        log.info("Resuming batch {}: {} of {} chunks left", batchId, pending.size(), job.getChunkCount());
+
+        Semaphore pendingChunks = new Semaphore(maxPendingChunks);
         try {
-            int batchSize = 1000;
-
-            // Process reviews in smaller batches
-            for (int i = 0; i < reviews.size(); i += batchSize) {
-                int end = Math.min(reviews.size(), i + batchSize);
-                List<Review> batch = reviews.subList(i, end);
-
-                List<String> batchTexts = batch.stream()
-                        .map(Review::getReviewText)
-                        .collect(Collectors.toList());
-
-                try {
-                    // Call Gemini for sentiment analysis
-                    java.util.Map<String, SentimentResult> results =
-                            geminiService.analyzeSentimentBatch(batchTexts);
-
-                    // Update sentiment for each review
-                    for (Review review : batch) {
-                        SentimentResult res = results.get(review.getReviewText());
-                        if (res != null) {
-                            review.setSentiment(res.getSentiment());
-                        } else {
-                            review.setSentiment("NEUTRAL");
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Batch analysis failed for batch starting at index {}", i, e);
-                    batch.forEach(r -> r.setSentiment("NEUTRAL"));
+            for (AnalysisChunk chunk : pending) {
+                submitAnalysis(state, chunk.getId(), jobStore.findPendingReviews(chunk), pendingChunks);
+            }
+        } catch (RuntimeException | InterruptedException e) {
+            // Chunks not submitted keep their checkpoint and are picked up on the next start
+            progressRegistry.finish(state, BatchAnalysisState.Phase.FAILED);
+            state.allChunksDone().whenComplete((ignored, error) -> analysisScheduler.release());
+            throw e;
+        }
+
+        scheduleFinalize(state);
+    }
+
+    // Response for a finished batch, from memory after the first read; empty while running or unknown
+    public Optional<SummaryResponseCache.CachedSummary> findSummaryResponse(String batchId) {
+        Optional<BatchProgress> progress = progressRegistry.find(batchId);
+        if (progress.isPresent() && !progress.get().isFinished())
+            return Optional.empty();
+        return summaryCache.get(batchId);
+    }
+
+    // Live progress, or the final state of a batch that is no longer tracked in memory
+    public Optional<BatchProgress> getProgress(String batchId) {
+        Optional<BatchProgress> progress = progressRegistry.find(batchId);
+        if (progress.isPresent())
+            return progress;
+        Optional<BatchProgress> finished = summaryRepository.findByBatchId(batchId).map(this::finishedProgress);
+        if (finished.isPresent())
+            return finished;
+        return trackFromStore(batchId);
+    }
+
+    // Progress stream for one batch, or empty if the batch is unknown
+    public Optional<SseEmitter> streamProgress(String batchId) {
+        Optional<SseEmitter> live = progressRegistry.subscribe(batchId);
+        if (live.isPresent())
+            return live;
+
+        Optional<BatchProgress> progress = getProgress(batchId);
+        // Running on another node: getProgress started tracking it here
+        if (progress.isPresent() && !progress.get().isFinished())
+            return progressRegistry.subscribe(batchId);
+        return progress.map(progressRegistry::finishedStream);
+    }
+
+    // Follows a batch running on another node (or waiting to be resumed) through the job table
+    private Optional<BatchProgress> trackFromStore(String batchId) {
+        Optional<AnalysisJob> job = jobStore.findJob(batchId);
+        if (job.isEmpty())
+            return Optional.empty();
+
+        BatchAnalysisState.Phase phase = BatchAnalysisState.Phase.valueOf(job.get().getState());
+        if (phase == BatchAnalysisState.Phase.COMPLETED || phase == BatchAnalysisState.Phase.FAILED) {
+            return Optional.of(BatchProgress.builder()
+                    .batchId(batchId)
+                    .state(phase.name())
+                    .reviewsIngested(job.get().getTotalReviews())
+                    .build());
+        }
+
+        progressRegistry.register(new BatchAnalysisState(batchId, new StratifiedReviewSampler(false, 0), 0),
+                this::refreshFromStore);
+        return progressRegistry.find(batchId);
+    }
+
+    // Reloads phase and counts from the job and its chunk checkpoints
+    private void refreshFromStore(BatchAnalysisState state) {
+        jobStore.findJob(state.getBatchId()).ifPresent(job -> {
+            state.raiseIngested(job.getTotalReviews());
+            state.advancePhase(BatchAnalysisState.Phase.valueOf(job.getState()));
+        });
+        AnalysisJobStore.ChunkTotals totals = jobStore.chunkTotals(state.getBatchId());
+        state.restoreProgress(totals.chunks, totals.chunksDone, totals.positive, totals.neutral, totals.negative);
+    }
+
+    private BatchProgress finishedProgress(AnalysisSummary summary) {
+        boolean failed = summary.isFailed();
+        long analyzed = summary.getPositiveCount() + summary.getNeutralCount() + summary.getNegativeCount();
+        return BatchProgress.builder()
+                .batchId(summary.getBatchId())
+                .state(failed ? "FAILED" : "COMPLETED")
+                .percentComplete(failed ? 0.0 : 100.0)
+                .reviewsIngested(summary.getTotalReviews())
+                .reviewsAnalyzed(analyzed)
+                .positiveCount(summary.getPositiveCount())
+                .neutralCount(summary.getNeutralCount())
+                .negativeCount(summary.getNegativeCount())
+                .build();
+    }
+
+    // Commits one chunk and starts its analysis, waiting if too many chunks are queued
+    private void submitChunk(BatchAnalysisState state, int seq, List<Review> chunk, Semaphore pendingChunks)
+            throws InterruptedException {
+        // Each chunk commits in its own transaction, together with its checkpoint
+        AnalysisChunk checkpoint = metrics.timeStage(PipelineMetrics.PERSIST,
+                () -> jobStore.insertChunk(state.getBatchId(), seq, chunk));
+        state.addIngested(chunk.size());
+        metrics.countIngested(chunk.size());
+
+        // In distributed mode the chunk waits in the table for any node to claim it
+        if (!distributed) {
+            submitAnalysis(state, checkpoint.getId(), chunk, pendingChunks);
+        }
+    }
+
+    // Starts analysis of persisted reviews, waiting if too many chunks are queued
+    private void submitAnalysis(BatchAnalysisState state, Long chunkId, List<Review> reviews, Semaphore pendingChunks)
+            throws InterruptedException {
+        long waitStart = System.nanoTime();
+        pendingChunks.acquire();
+        metrics.recordStage(PipelineMetrics.BACKPRESSURE, System.nanoTime() - waitStart);
+
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Void> future = analysisScheduler
+                .submit(() -> {
+                    metrics.recordStage(PipelineMetrics.QUEUE_WAIT, System.nanoTime() - queuedAt);
+                    metrics.timeStage(PipelineMetrics.ANALYZE_CHUNK, () -> analyzeChunk(state, reviews));
+                    // Checkpoint: this chunk is never sent to Gemini again
+                    jobStore.markChunkDone(chunkId);
+                })
+                .whenComplete((ignored, error) -> pendingChunks.release());
+        state.addChunkFuture(future);
+    }
+
+    // Performs sentiment analysis for one committed chunk.
+    // Near-identical reviews are clustered and only one representative per cluster is
+    // classified; results are persisted in micro-batches as they arrive, so a failure
+    // part-way through only loses the reviews that had not been answered yet.
+    private void analyzeChunk(BatchAnalysisState state, List<Review> chunk) {
+        List<String> chunkTexts = chunk.stream()
+                .map(Review::getReviewText)
+                .collect(Collectors.toList());
+
+        List<NearDuplicateClusterer.Cluster> clusters = dedupEnabled
+                ? new NearDuplicateClusterer(dedupMaxDistance).cluster(chunkTexts,
+                        text -> localClassifier.classify(text).getSentiment())
+                : NearDuplicateClusterer.singletons(chunkTexts.size());
+
+        List<Review> analyzed = new ArrayList<>(persistBatchSize);
+
+        // Clusters already labelled in an earlier chunk of the batch need no call at all
+        List<NearDuplicateClusterer.Cluster> toClassify = new ArrayList<>();
+        int propagated = 0;
+        for (NearDuplicateClusterer.Cluster cluster : clusters) {
+            String known = cluster.isIndexable()
+                    ? state.findClusterLabel(cluster.getFingerprint(), cluster.getGuard())
+                    : null;
+            if (known != null) {
+                labelCluster(state, chunk, cluster, known, analyzed);
+                propagated += cluster.size();
+            } else {
+                toClassify.add(cluster);
+                propagated += cluster.size() - 1;
+            }
+        }
+        metrics.countNearDuplicates(propagated);
+
+        List<String> representatives = toClassify.stream()
+                .map(cluster -> chunkTexts.get(cluster.getRepresentative()))
+                .collect(Collectors.toList());
+        boolean[] labelled = new boolean[toClassify.size()];
+        try {
+            // Call Gemini for sentiment analysis; positions refer to the representatives
+            geminiService.analyzeSentimentBatch(representatives, (position, result) -> {
+                NearDuplicateClusterer.Cluster cluster = toClassify.get(position);
+                labelled[position] = true;
+                if (cluster.isIndexable()) {
+                    state.rememberClusterLabel(cluster.getFingerprint(), cluster.getGuard(), result.getSentiment());
                 }
+                labelCluster(state, chunk, cluster, result.getSentiment(), analyzed);
+            });
+        } catch (Exception e) {
+            log.error("Chunk analysis failed for batch {}", state.getBatchId(), e);
+        }
 
-                // Save updated sentiments
-                reviewRepository.saveAll(batch);
+        // Clusters without a valid result get the local classifier's best guess
+        int fallbacks = 0;
+        for (int i = 0; i < toClassify.size(); i++) {
+            if (!labelled[i]) {
+                NearDuplicateClusterer.Cluster cluster = toClassify.get(i);
+                String guess = localClassifier.classify(representatives.get(i)).getSentiment();
+                labelCluster(state, chunk, cluster, guess, analyzed);
+                fallbacks += cluster.size();
             }
+        }
+        metrics.countLocalSentiments(PipelineMetrics.LOCAL_FALLBACK, fallbacks);
+        persistAnalyzed(state, analyzed);
+    }
 
-            // Generate overall summary
-            List<String> allTexts = reviews.stream()
-                    .map(Review::getReviewText)
-                    .collect(Collectors.toList());
+    // Gives every member the cluster's label and offers the representative, weighted by the
+    // cluster size, to the summary sample
+    private void labelCluster(BatchAnalysisState state, List<Review> chunk, NearDuplicateClusterer.Cluster cluster,
+                              String sentiment, List<Review> analyzed) {
+        for (int member : cluster.getMembers()) {
+            Review review = chunk.get(member);
+            review.setSentiment(sentiment);
+            analyzed.add(review);
+        }
+        state.offerToSample(chunk.get(cluster.getRepresentative()).getReviewText(), sentiment, cluster.size());
 
-            SummaryResult summaryResult = geminiService.generateSummary(allTexts);
+        if (analyzed.size() >= persistBatchSize) {
+            persistAnalyzed(state, analyzed);
+        }
+    }
 
-            // Count sentiment distribution
-            long positive = reviews.stream()
-                    .filter(r -> "POSITIVE".equals(r.getSentiment()))
-                    .count();
-            long neutral = reviews.stream()
-                    .filter(r -> "NEUTRAL".equals(r.getSentiment()))
-                    .count();
-            long negative = reviews.stream()
-                    .filter(r -> "NEGATIVE".equals(r.getSentiment()))
-                    .count();
+    private void keepClusterLabels(BatchAnalysisState state) {
+        if (dedupEnabled) {
+            state.keepClusterLabels(new SimHashIndex<>(dedupMaxDistance, dedupMaxIndexed));
+        }
+    }
 
+    // Summarizes once every submitted chunk has been analyzed, then frees the batch slot
+    private void scheduleFinalize(BatchAnalysisState state) {
+        state.allChunksDone().whenCompleteAsync((ignored, error) -> {
             try {
-                // Save final analysis summary
-                AnalysisSummary summary = AnalysisSummary.builder()
-                        .batchId(batchId)
-                        .totalReviews(reviews.size())
-                        .positiveCount(positive)
-                        .neutralCount(neutral)
-                        .negativeCount(negative)
-                        .overallSummary(summaryResult.getSummary())
-                        .topProsJson(objectMapper.writeValueAsString(summaryResult.getPros()))
-                        .topConsJson(objectMapper.writeValueAsString(summaryResult.getCons()))
-                        .build();
-
-                summaryRepository.save(summary);
+                finalizeBatch(state);
             } catch (Exception e) {
-                log.error("Failed to save summary JSON", e);
+                log.error("Async Analysis failed for batch: {}", state.getBatchId(), e);
+                finishBatch(state, BatchAnalysisState.Phase.FAILED);
+            } finally {
+                analysisScheduler.release();
             }
+        }, analysisScheduler.getExecutor());
+    }
+
+    // Records the final state in the job table and tells progress subscribers
+    private void finishBatch(BatchAnalysisState state, BatchAnalysisState.Phase phase) {
+        try {
+            jobStore.updateState(state.getBatchId(), phase);
         } catch (Exception e) {
-            log.error("Analysis Process Failed: {}", e.getMessage(), e);
+            log.error("Failed to record {} for batch: {}", phase, state.getBatchId(), e);
+        }
+        progressRegistry.finish(state, phase);
+    }
 
-            // Save failure summary if analysis completely fails
-            try {
-                AnalysisSummary errorSummary = AnalysisSummary.builder()
-                        .batchId(batchId)
-                        .totalReviews(reviews.size())
-                        .positiveCount(0L)
-                        .neutralCount(0L)
-                        .negativeCount(0L)
-                        .overallSummary("FAILED: " + e.getMessage())
-                        .topProsJson("[]")
-                        .topConsJson("[]")
-                        .build();
-
-                summaryRepository.save(errorSummary);
-            } catch (Exception saveErr) {
-                saveErr.printStackTrace();
+    // Rebuilds the summary reservoir from reviews analyzed before the restart
+    private void restoreSummarySample(BatchAnalysisState state) {
+        List<String> labels = List.of("POSITIVE", "NEUTRAL", "NEGATIVE");
+        List<List<String>> queries = stratifiedSummary
+                ? labels.stream().map(List::of).collect(Collectors.toList())
+                : List.of(labels);
+
+        for (List<String> sentiments : queries) {
+            for (Object[] row : reviewRepository.sampleAnalyzed(state.getBatchId(), sentiments, summarySampleSize)) {
+                state.offerToSample((String) row[0], (String) row[1]);
+            }
+        }
+    }
+
+    // Save updated sentiments and count them; clears the buffer (sampling happens per cluster)
+    private void persistAnalyzed(BatchAnalysisState state, List<Review> analyzed) {
+        if (analyzed.isEmpty())
+            return;
+
+        metrics.timeStage(PipelineMetrics.PERSIST_RESULTS, () -> reviewLoader.updateSentiments(analyzed));
+        analyzed.forEach(r -> state.countAnalyzed(r.getSentiment()));
+        metrics.countAnalyzed(analyzed.size());
+        analyzed.clear();
+    }
+
+    // Generates the overall summary and stores the final counts. Whatever fails on the way,
+    // the batch ends FAILED with a failure summary, so pollers never wait on it forever.
+    private void finalizeBatch(BatchAnalysisState state) {
+        String batchId = state.getBatchId();
+        AnalysisSummary summary;
+        try {
+            state.setPhase(BatchAnalysisState.Phase.SUMMARIZING);
+            jobStore.updateState(batchId, BatchAnalysisState.Phase.SUMMARIZING);
+
+            SummaryResult summaryResult = metrics.timeStage(PipelineMetrics.SUMMARY,
+                    () -> summarizer.summarize(state.getSummarySample()));
+
+            // Final counts from one aggregate over the persisted rows
+            Map<String, Long> counts = countSentiments(batchId);
+
+            // Save final analysis summary
+            summary = AnalysisSummary.builder()
+                    .batchId(batchId)
+                    .totalReviews(counts.values().stream().mapToLong(Long::longValue).sum())
+                    .positiveCount(counts.getOrDefault("POSITIVE", 0L))
+                    .neutralCount(counts.getOrDefault("NEUTRAL", 0L))
+                    .negativeCount(counts.getOrDefault("NEGATIVE", 0L))
+                    .overallSummary(summaryResult.getSummary())
+                    .topProsJson(objectMapper.writeValueAsString(summaryResult.getPros()))
+                    .topConsJson(objectMapper.writeValueAsString(summaryResult.getCons()))
+                    .build();
+
+            metrics.timeStage(PipelineMetrics.SAVE, () -> summaryRepository.save(summary));
+        } catch (Exception e) {
+            log.error("Analysis Process Failed for batch: {}", batchId, e);
+            saveFailureSummary(batchId, state.getTotalReviews(), e);
+            finishBatch(state, BatchAnalysisState.Phase.FAILED);
+            return;
+        }
+
+        // The summary is saved: a cache miss later just reads it back
+        try {
+            summaryCache.put(summary);
+        } catch (Exception e) {
+            log.warn("Could not cache the summary of batch: {}", batchId, e);
+        }
+        metrics.recordBatchCompleted(state.getTotalReviews(), System.nanoTime() - state.getStartedAtNanos());
+        finishBatch(state, BatchAnalysisState.Phase.COMPLETED);
+    }
+
+    // Rows per sentiment label for one batch
+    private Map<String, Long> countSentiments(String batchId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : reviewRepository.countSentimentByBatchId(batchId)) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // Save failure summary if analysis completely fails
+    private void saveFailureSummary(String batchId, long totalReviews, Exception cause) {
+        try {
+            AnalysisSummary errorSummary = AnalysisSummary.builder()
+                    .batchId(batchId)
+                    .totalReviews(totalReviews)
+                    .positiveCount(0L)
+                    .neutralCount(0L)
+                    .negativeCount(0L)
+                    .overallSummary("FAILED: " + cause.getMessage())
+                    .topProsJson("[]")
+                    .topConsJson("[]")
+                    .build();
+
+            summaryRepository.save(errorSummary);
+        } catch (Exception saveErr) {
+            log.error("Failed to save failure summary for batch: {}", batchId, saveErr);
+        }
+    }
+
+    // Reports bytes consumed by the CSV reader to the batch state
+    private static class CountingInputStream extends FilterInputStream {
+        private final BatchAnalysisState state;
+
+        CountingInputStream(InputStream in, BatchAnalysisState state) {
+            super(in);
+            this.state = state;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                state.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                state.addBytesRead(n);
             }
+            return n;
         }
     }
 }
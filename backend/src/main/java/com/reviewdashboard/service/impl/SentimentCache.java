@@ -0,0 +1,242 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.SentimentCacheStats;
+import com.reviewdashboard.entity.SentimentCacheEntry;
+import com.reviewdashboard.repository.SentimentCacheRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Two-tier sentiment cache keyed by a hash of the normalized review text.
+// Tier one is an in-memory LRU with TTL, tier two is the sentiment_cache table, whose rows
+// expire after their own TTL: expired rows are ignored on read, rewritten by the next answer
+// for the same text, and deleted by a periodic purge.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class SentimentCache {
+
+    // A live row is kept as it is; an expired one takes the fresh answer and timestamp
+    private static final String UPSERT_SQL =
+            "INSERT INTO sentiment_cache (text_hash, sentiment, created_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (text_hash) DO UPDATE SET sentiment = EXCLUDED.sentiment, created_at = EXCLUDED.created_at " +
+            "WHERE sentiment_cache.created_at <= ?";
+
+    // Bounded deletes, so a large backlog of expired rows never holds locks for long
+    private static final String PURGE_SQL =
+            "DELETE FROM sentiment_cache WHERE text_hash IN " +
+            "(SELECT text_hash FROM sentiment_cache WHERE created_at <= ? LIMIT ?)";
+
+    private static final int PURGE_BATCH_SIZE = 10_000;
+
+    // Cutoff used when table rows never expire; predates every row
+    private static final LocalDateTime NO_EXPIRY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SentimentCacheRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final long ttlMillis;
+    private final long persistentTtlHours;
+    private final long purgeIntervalMinutes;
+    private final ScheduledExecutorService purger;
+
+    // Access-ordered map; guarded by its own monitor
+    private final LinkedHashMap<String, MemoryEntry> memory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SentimentCache(SentimentCacheRepository repository,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${sentiment-cache.enabled:true}") boolean enabled,
+                          @Value("${sentiment-cache.persistent.enabled:true}") boolean persistentEnabled,
+                          @Value("${sentiment-cache.memory.max-entries:100000}") int maxEntries,
+                          @Value("${sentiment-cache.memory.ttl-minutes:60}") long ttlMinutes,
+                          @Value("${sentiment-cache.persistent.ttl-hours:720}") long persistentTtlHours,
+                          @Value("${sentiment-cache.persistent.purge-interval-minutes:60}") long purgeIntervalMinutes) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.persistentTtlHours = persistentTtlHours;
+        this.purgeIntervalMinutes = purgeIntervalMinutes;
+        this.purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sentiment-cache-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        this.memory = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && persistentEnabled && persistentTtlHours > 0 && purgeIntervalMinutes > 0) {
+            purger.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMinutes, purgeIntervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Cache key for a review: whitespace-collapsed, lower-cased, SHA-256 hex
+    public static String keyOf(String text) {
+        String normalized = WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Returns the cached sentiment for every key found in either tier
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> found = new HashMap<>();
+        if (!enabled || keys.isEmpty())
+            return found;
+
+        List<String> notInMemory = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            for (String key : keys) {
+                MemoryEntry entry = memory.get(key);
+                if (entry != null && entry.expiresAt > now) {
+                    found.put(key, entry.sentiment);
+                } else {
+                    if (entry != null) {
+                        memory.remove(key);
+                    }
+                    notInMemory.add(key);
+                }
+            }
+        }
+        memoryHits.addAndGet(found.size());
+
+        if (persistentEnabled && !notInMemory.isEmpty()) {
+            try {
+                List<SentimentCacheEntry> stored =
+                        repository.findByTextHashInAndCreatedAtAfter(notInMemory, persistentCutoff());
+                Map<String, String> fromTable = new HashMap<>();
+                stored.forEach(e -> fromTable.put(e.getTextHash(), e.getSentiment()));
+                putInMemory(fromTable);
+                found.putAll(fromTable);
+                persistentHits.addAndGet(fromTable.size());
+            } catch (Exception e) {
+                log.warn("Sentiment cache table lookup failed, treating as misses", e);
+            }
+        }
+
+        misses.addAndGet(keys.size() - found.size());
+        return found;
+    }
+
+    // Stores fresh model results in both tiers
+    public void putAll(Map<String, String> sentimentsByKey) {
+        if (!enabled || sentimentsByKey.isEmpty())
+            return;
+
+        putInMemory(sentimentsByKey);
+
+        if (persistentEnabled) {
+            try {
+                List<Map.Entry<String, String>> rows = new ArrayList<>(sentimentsByKey.entrySet());
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                Timestamp cutoff = Timestamp.valueOf(persistentCutoff());
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setString(1, row.getKey());
+                    ps.setString(2, row.getValue());
+                    ps.setTimestamp(3, now);
+                    ps.setTimestamp(4, cutoff);
+                });
+            } catch (Exception e) {
+                log.warn("Failed to persist sentiment cache entries", e);
+            }
+        }
+    }
+
+    public SentimentCacheStats stats() {
+        int size;
+        synchronized (memory) {
+            size = memory.size();
+        }
+        return new SentimentCacheStats(memoryHits.get(), persistentHits.get(), misses.get(), size);
+    }
+
+    // Deletes table rows past their TTL, a batch at a time
+    void purgeExpired() {
+        try {
+            Timestamp cutoff = Timestamp.valueOf(persistentCutoff());
+            long purged = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, cutoff, PURGE_BATCH_SIZE);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+            if (purged > 0) {
+                log.info("Purged {} expired sentiment cache entries", purged);
+            }
+        } catch (Exception e) {
+            log.warn("Sentiment cache purge failed", e);
+        }
+    }
+
+    // Rows written at or before this instant have expired; a TTL of 0 keeps rows forever
+    private LocalDateTime persistentCutoff() {
+        return persistentTtlHours > 0 ? LocalDateTime.now().minusHours(persistentTtlHours) : NO_EXPIRY;
+    }
+
+    private void putInMemory(Map<String, String> sentimentsByKey) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        synchronized (memory) {
+            sentimentsByKey.forEach((key, sentiment) -> memory.put(key, new MemoryEntry(sentiment, expiresAt)));
+        }
+    }
+
+    private static final class MemoryEntry {
+        private final String sentiment;
+        private final long expiresAt;
+
+        private MemoryEntry(String sentiment, long expiresAt) {
+            this.sentiment = sentiment;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.SentimentResult;
+
+// Receives each sentiment result as soon as it is known, by position in the input list
+@FunctionalInterface
+public interface SentimentListener {
+    void onResult(int position, SentimentResult result);
+}
@@ -0,0 +1,176 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.SentimentResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Merges small sentiment requests from concurrent uploads into shared prompts.
+// The first caller of a round becomes its leader: it waits up to the linger window (or until
+// the round holds max-reviews), then classifies every review of the round in one go.
+// Results are routed back per caller and handed to each caller's listener on its own thread.
+@Component
+public class SentimentRequestCoalescer {
+
+    private final boolean enabled;
+    private final long lingerMs;
+    private final int maxReviews;
+    private final PipelineMetrics metrics;
+
+    // Round currently accepting reviews; guarded by this
+    private Round open;
+
+    public SentimentRequestCoalescer(@Value("${gemini.coalesce.enabled:true}") boolean enabled,
+                                     @Value("${gemini.coalesce.linger-ms:25}") long lingerMs,
+                                     @Value("${gemini.coalesce.max-reviews:200}") int maxReviews,
+                                     PipelineMetrics metrics) {
+        this.enabled = enabled;
+        this.lingerMs = lingerMs;
+        this.maxReviews = maxReviews;
+        this.metrics = metrics;
+    }
+
+    // Requests this small are worth delaying for company; larger ones go out on their own
+    public boolean accepts(int reviews) {
+        return enabled && reviews < maxReviews;
+    }
+
+    // Classifies the reviews together with whatever else arrives during the linger window.
+    // classifier runs the combined request and reports results by position in its list.
+    public void classify(List<String> reviews, SentimentListener listener,
+                         BiConsumer<List<String>, SentimentListener> classifier) {
+        Submission submission = new Submission(reviews);
+        Round round;
+        boolean leader;
+        synchronized (this) {
+            if (open == null) {
+                open = new Round();
+                leader = true;
+            } else {
+                leader = false;
+            }
+            round = open;
+            round.add(submission);
+            if (round.reviews >= maxReviews) {
+                open = null;
+                round.full.countDown();
+            }
+        }
+
+        if (leader) {
+            try {
+                round.full.await(lingerMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                if (open == round) {
+                    open = null;
+                }
+            }
+            round.run(classifier);
+        }
+
+        submission.drainTo(listener);
+    }
+
+    // Reviews of several callers classified by one request
+    private final class Round {
+        final List<Submission> submissions = new ArrayList<>();
+        final CountDownLatch full = new CountDownLatch(1);
+        int reviews;
+
+        void add(Submission submission) {
+            submissions.add(submission);
+            reviews += submission.reviews.size();
+        }
+
+        // Every submission is done afterwards, whether or not all its reviews got a result
+        void run(BiConsumer<List<String>, SentimentListener> classifier) {
+            // Sealed once the leader gets here: no new submission can join
+            List<Submission> members;
+            synchronized (SentimentRequestCoalescer.this) {
+                members = List.copyOf(submissions);
+            }
+
+            // The same text from different uploads is asked once
+            Map<String, List<Target>> targetsByText = new LinkedHashMap<>();
+            for (Submission submission : members) {
+                for (int i = 0; i < submission.reviews.size(); i++) {
+                    targetsByText.computeIfAbsent(submission.reviews.get(i), t -> new ArrayList<>(1))
+                            .add(new Target(submission, i));
+                }
+            }
+            List<String> texts = new ArrayList<>(targetsByText.keySet());
+            metrics.recordCoalescedRound(members.size(), texts.size());
+
+            try {
+                classifier.accept(texts, (position, result) -> {
+                    for (Target target : targetsByText.get(texts.get(position))) {
+                        target.submission.results.add(new Answer(target.position, result));
+                    }
+                });
+            } finally {
+                members.forEach(Submission::finish);
+            }
+        }
+    }
+
+    private static final class Submission {
+        // Marks the end of a submission's results
+        private static final Answer DONE = new Answer(-1, null);
+
+        final List<String> reviews;
+        final BlockingQueue<Answer> results = new LinkedBlockingQueue<>();
+
+        Submission(List<String> reviews) {
+            this.reviews = reviews;
+        }
+
+        void finish() {
+            results.add(DONE);
+        }
+
+        // Reports results on the caller's thread as they arrive, until the round is over
+        void drainTo(SentimentListener listener) {
+            try {
+                Answer answer;
+                while ((answer = results.take()) != DONE) {
+                    listener.onResult(answer.position, answer.result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for coalesced sentiment results", e);
+            }
+        }
+    }
+
+    private static final class Target {
+        final Submission submission;
+        final int position;
+
+        Target(Submission submission, int position) {
+            this.submission = submission;
+            this.position = position;
+        }
+    }
+
+    private static final class Answer {
+        final int position;
+        final SentimentResult result;
+
+        Answer(int position, SentimentResult result) {
+            this.position = position;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.reviewdashboard.service.impl;
+
+// Decodes a sentiment response fed in arbitrary fragments, reporting elements as they complete
+interface SentimentResponseDecoder {
+
+    void feed(String fragment);
+
+    // Called once the whole response has been fed
+    default void finish() {
+    }
+
+    // True if the response ended the way the format requires
+    boolean isComplete();
+
+    int getElementCount();
+}
@@ -0,0 +1,139 @@
+package com.reviewdashboard.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// 64-bit SimHash fingerprints with a banded lookup (LSH). The fingerprint is split into four
+// 16-bit bands; two fingerprints at most 3 bits apart agree on at least one band, so only
+// entries sharing a band are compared. Entries also carry a guard and only match equal guards.
+// Not thread-safe.
+final class SimHashIndex<T> {
+
+    static final int BANDS = 4;
+    static final int MAX_DISTANCE = BANDS - 1;
+
+    private static final int BAND_BITS = 64 / BANDS;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WORD_CHAR = Pattern.compile("[\\p{L}\\p{N}]");
+
+    private final int maxDistance;
+    private final int maxEntries;
+    private final Map<Integer, List<Entry<T>>> buckets = new HashMap<>();
+    private int size;
+
+    SimHashIndex(int maxDistance, int maxEntries) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE)
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_DISTANCE);
+        this.maxDistance = maxDistance;
+        this.maxEntries = maxEntries;
+    }
+
+    // False for texts without a letter or digit (emoji or punctuation only). They all share the
+    // fingerprint 0 whatever they say, so they must never be indexed or looked up.
+    static boolean hasWords(String text) {
+        return WORD_CHAR.matcher(text).find();
+    }
+
+    // Fingerprint over lower-cased words and word pairs; punctuation and spacing are ignored
+    static long fingerprint(String text) {
+        String[] words = NON_WORD.split(text.toLowerCase(Locale.ROOT));
+        int[] votes = new int[64];
+        String previous = null;
+        for (String word : words) {
+            if (word.isEmpty())
+                continue;
+            vote(votes, hash64(word));
+            if (previous != null) {
+                vote(votes, hash64(previous + ' ' + word));
+            }
+            previous = word;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    // Value of the closest entry within maxDistance with the same guard, or null
+    T findNear(long fingerprint, String guard) {
+        Entry<T> best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry<T>> bucket = buckets.get(bandKey(fingerprint, band));
+            if (bucket == null)
+                continue;
+            for (Entry<T> entry : bucket) {
+                int distance = Long.bitCount(entry.fingerprint ^ fingerprint);
+                if (distance <= maxDistance && distance < bestDistance && Objects.equals(entry.guard, guard)) {
+                    best = entry;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best == null ? null : best.value;
+    }
+
+    // False once the index is full; lookups keep working
+    boolean add(long fingerprint, String guard, T value) {
+        if (size >= maxEntries)
+            return false;
+
+        Entry<T> entry = new Entry<>(fingerprint, guard, value);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(fingerprint, band), k -> new ArrayList<>(1)).add(entry);
+        }
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int bandKey(long fingerprint, int band) {
+        int bits = (int) (fingerprint >>> (band * BAND_BITS)) & 0xFFFF;
+        return (band << BAND_BITS) | bits;
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    // FNV-1a followed by a murmur finalizer, so every bit depends on every character
+    private static long hash64(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Entry<T> {
+        final long fingerprint;
+        final String guard;
+        final T value;
+
+        Entry(long fingerprint, String guard, T value) {
+            this.fingerprint = fingerprint;
+            this.guard = guard;
+            this.value = value;
+        }
+    }
+}
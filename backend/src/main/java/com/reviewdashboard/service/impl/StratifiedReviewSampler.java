@@ -0,0 +1,95 @@
+package com.reviewdashboard.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Reservoir sample of a batch's reviews, optionally kept per sentiment and weighted by
+// how many near-identical reviews each offered one stands for.
+// Memory stays fixed however many reviews are offered.
+class StratifiedReviewSampler {
+
+    // Key used for every review when sampling is not stratified
+    static final String ALL = "ALL";
+
+    private final boolean stratified;
+    private final int capacity;
+    private final Map<String, Reservoir> reservoirs = new LinkedHashMap<>();
+
+    StratifiedReviewSampler(boolean stratified, int capacity) {
+        this.stratified = stratified;
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(String text, String sentiment) {
+        offer(text, sentiment, 1);
+    }
+
+    // One review standing for weight near-identical ones; it is that many times as likely to be
+    // kept, and is labelled with the weight so the summary can tell how common it was
+    synchronized void offer(String text, String sentiment, int weight) {
+        String key = stratified ? sentiment : ALL;
+        reservoirs.computeIfAbsent(key, k -> new Reservoir(capacity)).offer(text, weight);
+    }
+
+    // Sampled reviews per stratum (a single "ALL" stratum when not stratified)
+    synchronized Map<String, List<String>> sample() {
+        Map<String, List<String>> sample = new LinkedHashMap<>();
+        reservoirs.forEach((key, reservoir) -> sample.put(key, reservoir.texts()));
+        return sample;
+    }
+
+    private static final class Reservoir {
+        private final int capacity;
+        // Lowest key first, so the next item to evict is at the head
+        private final PriorityQueue<Item> items = new PriorityQueue<>(Comparator.comparingDouble(Item::key));
+
+        private Reservoir(int capacity) {
+            this.capacity = capacity;
+        }
+
+        // Weighted reservoir (A-Res): keeps the items with the largest u^(1/weight), compared as
+        // log(u)/weight. With every weight 1 this is a uniform sample, like Algorithm R.
+        private void offer(String text, int weight) {
+            if (capacity <= 0)
+                return;
+
+            double u = ThreadLocalRandom.current().nextDouble();
+            double key = Math.log(u == 0.0 ? Double.MIN_VALUE : u) / Math.max(1, weight);
+            if (items.size() < capacity) {
+                items.add(new Item(text, weight, key));
+            } else if (key > items.peek().key()) {
+                items.poll();
+                items.add(new Item(text, weight, key));
+            }
+        }
+
+        private List<String> texts() {
+            List<String> texts = new ArrayList<>(items.size());
+            for (Item item : items) {
+                texts.add(item.weight > 1 ? "[x" + item.weight + "] " + item.text : item.text);
+            }
+            return texts;
+        }
+    }
+
+    private static final class Item {
+        private final String text;
+        private final int weight;
+        private final double key;
+
+        private Item(String text, int weight, double key) {
+            this.text = text;
+            this.weight = weight;
+            this.key = key;
+        }
+
+        private double key() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.reviewdashboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reviewdashboard.dto.AnalysisSummaryResponse;
+import com.reviewdashboard.entity.AnalysisSummary;
+import com.reviewdashboard.repository.AnalysisSummaryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Serialized responses of finished batches. A completed summary never changes, so each one is
+// read and serialized once and then served from memory with a content-hash ETag. A failed
+// summary is final too (nothing replaces it), so it is cached the same way.
+@lombok.extern.slf4j.Slf4j
+@Component
+public class SummaryResponseCache {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final AnalysisSummaryRepository summaryRepository;
+    private final ObjectMapper objectMapper;
+
+    // Access-ordered map; guarded by its own monitor
+    private final LinkedHashMap<String, CachedSummary> entries;
+
+    public SummaryResponseCache(AnalysisSummaryRepository summaryRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${review.summary-cache.max-entries:1000}") int maxEntries) {
+        this.summaryRepository = summaryRepository;
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSummary> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Cached response, loading the summary on a miss; empty while the batch has no summary
+    public Optional<CachedSummary> get(String batchId) {
+        synchronized (entries) {
+            CachedSummary cached = entries.get(batchId);
+            if (cached != null)
+                return Optional.of(cached);
+        }
+        return summaryRepository.findByBatchId(batchId).map(this::put);
+    }
+
+    // Adds a just-saved summary so the first dashboard load does not hit the database either
+    public CachedSummary put(AnalysisSummary summary) {
+        CachedSummary cached = serialize(summary);
+        synchronized (entries) {
+            entries.put(summary.getBatchId(), cached);
+        }
+        return cached;
+    }
+
+    private CachedSummary serialize(AnalysisSummary summary) {
+        AnalysisSummaryResponse response = new AnalysisSummaryResponse(
+                summary.getBatchId(),
+                summary.isFailed() ? "FAILED" : "COMPLETED",
+                summary.getTotalReviews(),
+                summary.getPositiveCount(),
+                summary.getNeutralCount(),
+                summary.getNegativeCount(),
+                summary.getOverallSummary(),
+                parseList(summary.getTopProsJson()),
+                parseList(summary.getTopConsJson()),
+                summary.getAnalyzedAt());
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            return new CachedSummary(body, etagOf(body), summary.isFailed());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize summary of batch " + summary.getBatchId(), e);
+        }
+    }
+
+    private List<String> parseList(String json) {
+        if (json == null || json.isBlank())
+            return List.of();
+        try {
+            return objectMapper.readValue(json, STRING_LIST);
+        } catch (JsonProcessingException e) {
+            log.warn("Stored pros/cons are not a JSON array: {}", json);
+            return List.of();
+        }
+    }
+
+    // Strong validator: quoted hex prefix of the body's SHA-256
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Response body as JSON bytes, with its ETag
+    public static class CachedSummary {
+        private final byte[] body;
+        private final String etag;
+        private final boolean failed;
+
+        CachedSummary(byte[] body, String etag, boolean failed) {
+            this.body = body;
+            this.etag = etag;
+            this.failed = failed;
+        }
+
+        public byte[] getBody() { return body; }
+        public String getEtag() { return etag; }
+        public boolean isFailed() { return failed; }
+    }
+}
@@ -0,0 +1,79 @@
+package com.reviewdashboard.service.impl;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.reviewdashboard.exception.InvalidRequestException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+// Decompresses upload bodies on the fly: gzip, zstd or none. Without a declared encoding
+// the first bytes decide, so a .csv.gz or .csv.zst sent as a plain file also works.
+public final class UploadDecoding {
+
+    public static final String GZIP = "gzip";
+    public static final String ZSTD = "zstd";
+    public static final String IDENTITY = "identity";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private UploadDecoding() {
+    }
+
+    // Normalized encoding name, or null when the request does not name one
+    public static String encodingOf(String contentEncoding, String contentType) {
+        if (contentEncoding != null && !contentEncoding.isBlank()) {
+            String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+            switch (encoding) {
+                case GZIP:
+                case "x-gzip":
+                    return GZIP;
+                case ZSTD:
+                    return ZSTD;
+                case IDENTITY:
+                    return IDENTITY;
+                default:
+                    throw new InvalidRequestException("Unsupported Content-Encoding: " + contentEncoding
+                            + " (use gzip, zstd or identity)");
+            }
+        }
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("application/gzip") || type.startsWith("application/x-gzip"))
+                return GZIP;
+            if (type.startsWith("application/zstd"))
+                return ZSTD;
+        }
+        return null;
+    }
+
+    public static InputStream decode(InputStream in, String encoding) throws IOException {
+        if (encoding == null) {
+            in = new BufferedInputStream(in, BUFFER_SIZE);
+            encoding = sniff(in);
+        }
+        switch (encoding) {
+            case GZIP:
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD:
+                return new ZstdInputStream(in);
+            default:
+                return in;
+        }
+    }
+
+    // gzip starts with 1f 8b, a zstd frame with 28 b5 2f fd
+    private static String sniff(InputStream in) throws IOException {
+        in.mark(4);
+        byte[] magic = in.readNBytes(4);
+        in.reset();
+        if (magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B)
+            return GZIP;
+        if (magic.length == 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5
+                && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD)
+            return ZSTD;
+        return IDENTITY;
+    }
+}
@@ -0,0 +1,139 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST_MS = 100;
+    private static final long SLOW_MS = 5_000;
+
+    @Test
+    void fullyUsedLimitGrowsAdditively() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 32, 1_000);
+
+        limiter.acquire();
+        limiter.onSuccess(FAST_MS);
+        assertEquals(2, limiter.getLimit());
+
+        // Two fast calls at the full limit add 1/2 + 1/2.5, still short of 3
+        runFull(limiter, 2);
+        assertEquals(2, limiter.getLimit());
+        runFull(limiter, 1);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void slowOrUnderusedCallsDoNotGrowTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 32, 1_000);
+
+        limiter.acquire();
+        limiter.onSuccess(FAST_MS);
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            fill(limiter);
+            limiter.onSuccess(SLOW_MS);
+            drain(limiter);
+        }
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void growthStopsAtTheMaximum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(3, 1, 3, 1_000);
+
+        runFull(limiter, 10);
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void throttlingCutsTheLimitOncePerCooldown() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 32, 60_000);
+
+        limiter.acquire();
+        limiter.acquire();
+        limiter.onThrottled();
+        assertEquals(4, limiter.getLimit());
+
+        // The rest of the same burst of 429s leaves it alone
+        limiter.onThrottled();
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void throttlingNeverGoesBelowTheMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 3, 32, 0);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onThrottled();
+        }
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void otherFailuresLeaveTheLimitUnchanged() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 32, 0);
+
+        fill(limiter);
+        limiter.onFailure();
+        assertEquals(4, limiter.getLimit());
+        assertEquals(3, limiter.getInFlight());
+    }
+
+    @Test
+    void acquireBlocksAtTheLimitUntilACallFinishes() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1, 0);
+        limiter.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        limiter.onSuccess(FAST_MS);
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max, long cooldownMs) {
+        return new AdaptiveConcurrencyLimiter(initial, min, max, 1_000, 0.5, cooldownMs);
+    }
+
+    // Completes fast calls one at a time while every slot of the current limit is taken
+    private static void runFull(AdaptiveConcurrencyLimiter limiter, int calls) throws InterruptedException {
+        for (int i = 0; i < calls; i++) {
+            fill(limiter);
+            limiter.onSuccess(FAST_MS);
+            drain(limiter);
+        }
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        while (limiter.getInFlight() < limiter.getLimit()) {
+            limiter.acquire();
+        }
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.getInFlight() > 0) {
+            limiter.onFailure();
+        }
+    }
+}
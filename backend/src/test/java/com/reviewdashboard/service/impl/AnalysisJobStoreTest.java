@@ -0,0 +1,200 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.entity.AnalysisChunk;
+import com.reviewdashboard.entity.Review;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The claim and checkpoint SQL is PostgreSQL-specific (SKIP LOCKED, FILTER, interval arithmetic),
+// so it runs against a real server; skipped where Docker is not available
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AnalysisJobStore.class, ReviewBulkLoader.class})
+@Testcontainers(disabledWithoutDocker = true)
+// Every store call commits on its own, as in production, so claims from other threads see it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnalysisJobStoreTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AnalysisJobStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE analysis_chunks, analysis_jobs, reviews");
+    }
+
+    @Test
+    void claimsOldestChunksOnceUntilTheLeaseExpires() {
+        List<AnalysisChunk> chunks = ingest("batch-1", 3, 2);
+
+        List<AnalysisChunk> first = store.claimChunks("node-a", 2, 60);
+        assertEquals(ids(chunks.subList(0, 2)), ids(first));
+        assertTrue(first.stream().allMatch(c -> "node-a".equals(c.getLeaseOwner())));
+
+        assertEquals(ids(chunks.subList(2, 3)), ids(store.claimChunks("node-b", 5, 60)));
+        assertTrue(store.claimChunks("node-c", 5, 60).isEmpty());
+    }
+
+    @Test
+    void expiredLeaseIsClaimedByAnotherNode() {
+        List<AnalysisChunk> chunks = ingest("batch-1", 1, 2);
+
+        assertEquals(1, store.claimChunks("node-a", 1, -1).size());
+        // node-a stopped renewing: its lease is already in the past
+        assertEquals(ids(chunks), ids(store.claimChunks("node-b", 1, 60)));
+        assertFalse(store.completeClaimedChunk(chunks.get(0).getId(), "node-a"));
+    }
+
+    @Test
+    void chunksOfFinishedJobsAreNotClaimed() {
+        ingest("batch-1", 2, 2);
+        store.updateState("batch-1", BatchAnalysisState.Phase.FAILED);
+
+        assertTrue(store.claimChunks("node-a", 5, 60).isEmpty());
+    }
+
+    @Test
+    void releasedChunksCanBeClaimedAgain() {
+        ingest("batch-1", 2, 2);
+        store.claimChunks("node-a", 2, 60);
+
+        assertEquals(2, store.releaseChunks("node-a"));
+        assertEquals(2, store.claimChunks("node-b", 5, 60).size());
+    }
+
+    @Test
+    void concurrentClaimsNeverShareAChunk() throws Exception {
+        List<AnalysisChunk> chunks = ingest("batch-1", 40, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> claims = new ArrayList<>();
+            for (int n = 0; n < 4; n++) {
+                String owner = "node-" + n;
+                claims.add(pool.submit((Callable<List<Long>>) () -> {
+                    List<Long> claimed = new ArrayList<>();
+                    List<AnalysisChunk> batch;
+                    while (!(batch = store.claimChunks(owner, 3, 60)).isEmpty()) {
+                        claimed.addAll(ids(batch));
+                    }
+                    return claimed;
+                }));
+            }
+
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> claim : claims) {
+                all.addAll(claim.get());
+            }
+            assertEquals(chunks.size(), all.size());
+            assertEquals(new HashSet<>(ids(chunks)), new HashSet<>(all));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void completingAChunkRecordsItsSentimentCounts() {
+        List<AnalysisChunk> chunks = ingest("batch-1", 2, 3);
+        store.claimChunks("node-a", 2, 60);
+        label(chunks.get(0), "POSITIVE", "POSITIVE", "NEGATIVE");
+        label(chunks.get(1), "NEUTRAL", "NEGATIVE", "NEGATIVE");
+
+        assertFalse(store.completeClaimedChunk(chunks.get(0).getId(), "node-b"));
+        assertTrue(store.completeClaimedChunk(chunks.get(0).getId(), "node-a"));
+        // A chunk is completed only once
+        assertFalse(store.completeClaimedChunk(chunks.get(0).getId(), "node-a"));
+
+        AnalysisJobStore.ChunkTotals partial = store.chunkTotals("batch-1");
+        assertEquals(2, partial.chunks);
+        assertEquals(1, partial.chunksDone);
+        assertEquals(2, partial.positive);
+        assertEquals(0, partial.neutral);
+        assertEquals(1, partial.negative);
+
+        assertTrue(store.completeClaimedChunk(chunks.get(1).getId(), "node-a"));
+        AnalysisJobStore.ChunkTotals totals = store.chunkTotals("batch-1");
+        assertEquals(2, totals.chunksDone);
+        assertEquals(1, totals.neutral);
+        assertEquals(3, totals.negative);
+    }
+
+    @Test
+    void exactlyOneCallerStartsTheSummary() {
+        List<AnalysisChunk> chunks = ingest("batch-1", 2, 1);
+        store.claimChunks("node-a", 2, 60);
+        store.completeClaimedChunk(chunks.get(0).getId(), "node-a");
+
+        // One chunk still open
+        assertFalse(store.tryStartSummary("batch-1"));
+        assertTrue(store.findSummarizable().isEmpty());
+
+        store.completeClaimedChunk(chunks.get(1).getId(), "node-a");
+        assertEquals(List.of("batch-1"), store.findSummarizable());
+        assertTrue(store.tryStartSummary("batch-1"));
+        assertFalse(store.tryStartSummary("batch-1"));
+        assertEquals("SUMMARIZING", store.findJob("batch-1").orElseThrow().getState());
+    }
+
+    // Job with chunkCount chunks of reviewsPerChunk pending reviews, ingestion finished
+    private List<AnalysisChunk> ingest(String batchId, int chunkCount, int reviewsPerChunk) {
+        store.createJob(batchId);
+        List<AnalysisChunk> chunks = new ArrayList<>();
+        for (int seq = 0; seq < chunkCount; seq++) {
+            List<Review> reviews = new ArrayList<>();
+            for (int i = 0; i < reviewsPerChunk; i++) {
+                reviews.add(Review.builder()
+                        .reviewText("review " + seq + "/" + i)
+                        .productId("UNKNOWN")
+                        .batchId(batchId)
+                        .sentiment("PENDING")
+                        .build());
+            }
+            chunks.add(store.insertChunk(batchId, seq, reviews));
+        }
+        store.markIngested(batchId, chunkCount, (long) chunkCount * reviewsPerChunk);
+        return chunks;
+    }
+
+    private void label(AnalysisChunk chunk, String... sentiments) {
+        for (int i = 0; i < sentiments.length; i++) {
+            jdbcTemplate.update("UPDATE reviews SET sentiment = ? WHERE id = ?",
+                    sentiments[i], chunk.getFirstReviewId() + i);
+        }
+    }
+
+    private static List<Long> ids(List<AnalysisChunk> chunks) {
+        return chunks.stream().map(AnalysisChunk::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactSentimentDecoderTest {
+
+    private final List<String> elements = new ArrayList<>();
+
+    @Test
+    void acceptsAWholeAnswerWithAMatchingCount() {
+        CompactSentimentDecoder decoder = decode(12, "PPNUPPNNPU PN=12");
+
+        assertTrue(decoder.isComplete());
+        assertEquals(12, decoder.getElementCount());
+        assertEquals(List.of("0:POSITIVE", "1:POSITIVE", "2:NEGATIVE", "3:NEUTRAL"), elements.subList(0, 4));
+        assertEquals("11:NEGATIVE", elements.get(11));
+    }
+
+    @Test
+    void reportsNothingBeforeTheAnswerIsChecked() {
+        CompactSentimentDecoder decoder = decoder(3);
+
+        decoder.feed("PNU=3");
+        assertTrue(elements.isEmpty());
+
+        decoder.finish();
+        assertEquals(List.of("0:POSITIVE", "1:NEGATIVE", "2:NEUTRAL"), elements);
+    }
+
+    @Test
+    void ignoresAFenceAndFragmentBoundaries() {
+        CompactSentimentDecoder decoder = decoder(11);
+        for (char c : "```\nPPPPPNNNNN\nU=11\n```".toCharArray()) {
+            decoder.feed(String.valueOf(c));
+        }
+        decoder.finish();
+
+        assertTrue(decoder.isComplete());
+        assertEquals(11, elements.size());
+        assertEquals("10:NEUTRAL", elements.get(10));
+    }
+
+    @Test
+    void rejectsACountMismatch() {
+        assertRejected(decode(3, "PNU=4"));
+        assertRejected(decode(3, "PNU=2"));
+    }
+
+    @Test
+    void rejectsAMissingCount() {
+        assertRejected(decode(3, "PNU"));
+        assertRejected(decode(3, "PNU\n```"));
+    }
+
+    @Test
+    void rejectsATruncatedAnswer() {
+        // Cut off mid-answer: the count never arrives and letters are missing
+        assertRejected(decode(12, "PPNUPPNNPU P"));
+        // Count matches what was sent, but not the number of reviews
+        assertRejected(decode(12, "PPNUPPNNPU P=11"));
+    }
+
+    @Test
+    void rejectsExtraLetters() {
+        assertRejected(decode(2, "PNU=2"));
+    }
+
+    @Test
+    void rejectsMisshapenGroups() {
+        // A short group in the middle means a letter went missing or moved
+        assertRejected(decode(12, "PPNUPPNNP UPN=12"));
+        // Groups hold at most ten letters
+        assertRejected(decode(12, "PPNUPPNNPUP N=12"));
+    }
+
+    @Test
+    void rejectsUnexpectedCharacters() {
+        assertRejected(decode(3, "PXNU=3"));
+    }
+
+    @Test
+    void finishIsIdempotent() {
+        CompactSentimentDecoder decoder = decode(2, "PN=2");
+        decoder.finish();
+
+        assertEquals(2, elements.size());
+    }
+
+    private void assertRejected(CompactSentimentDecoder decoder) {
+        assertFalse(decoder.isComplete());
+        assertEquals(0, decoder.getElementCount());
+        assertTrue(elements.isEmpty(), "no labels may be reported: " + elements);
+    }
+
+    private CompactSentimentDecoder decode(int expected, String answer) {
+        CompactSentimentDecoder decoder = decoder(expected);
+        decoder.feed(answer);
+        decoder.finish();
+        return decoder;
+    }
+
+    private CompactSentimentDecoder decoder(int expected) {
+        return new CompactSentimentDecoder(expected, (position, index, sentiment) -> {
+            assertEquals(position, index);
+            elements.add(position + ":" + sentiment);
+        });
+    }
+}
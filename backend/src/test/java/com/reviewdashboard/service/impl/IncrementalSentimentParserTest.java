@@ -0,0 +1,108 @@
+package com.reviewdashboard.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalSentimentParserTest {
+
+    private static final String RESPONSE = "```json\n"
+            + "[{\"index\": 0, \"sentiment\": \"POSITIVE\"},\n"
+            + " {\"index\": 1, \"sentiment\": \"NEGATIVE\"},\n"
+            + " {\"index\": 2, \"sentiment\": \"NEUTRAL\"}]\n"
+            + "```";
+
+    private final List<String> elements = new ArrayList<>();
+
+    @Test
+    void parsesAWholeResponseInsideAFence() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed(RESPONSE);
+
+        assertEquals(List.of("0:0:POSITIVE", "1:1:NEGATIVE", "2:2:NEUTRAL"), elements);
+        assertTrue(parser.isComplete());
+        assertEquals(3, parser.getElementCount());
+    }
+
+    @Test
+    void fragmentBoundariesDoNotMatter() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        for (int i = 0; i < RESPONSE.length(); i++) {
+            parser.feed(RESPONSE.substring(i, i + 1));
+        }
+
+        assertEquals(List.of("0:0:POSITIVE", "1:1:NEGATIVE", "2:2:NEUTRAL"), elements);
+        assertTrue(parser.isComplete());
+    }
+
+    @Test
+    void reportsEachElementAsSoonAsItIsComplete() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed("[{\"index\": 0, \"sentiment\": \"POSITIVE\"}, {\"index\": 1, \"senti");
+        assertEquals(List.of("0:0:POSITIVE"), elements);
+        assertFalse(parser.isComplete());
+
+        parser.feed("ment\": \"NEGATIVE\"}]");
+        assertEquals(List.of("0:0:POSITIVE", "1:1:NEGATIVE"), elements);
+        assertTrue(parser.isComplete());
+    }
+
+    @Test
+    void truncatedResponseKeepsWhatItHas() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed("[{\"index\": 0, \"sentiment\": \"POSITIVE\"}, {\"index\": 1");
+
+        assertEquals(List.of("0:0:POSITIVE"), elements);
+        assertFalse(parser.isComplete());
+        assertEquals(1, parser.getElementCount());
+    }
+
+    @Test
+    void stopsAtASyntaxError() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed("[{\"index\": 0, \"sentiment\": \"POSITIVE\"}, {oops}, {\"index\": 2, \"sentiment\": \"NEUTRAL\"}]");
+        parser.feed("[{\"index\": 3, \"sentiment\": \"NEUTRAL\"}]");
+
+        assertEquals(List.of("0:0:POSITIVE"), elements);
+        assertFalse(parser.isComplete());
+    }
+
+    @Test
+    void acceptsBareLabelsAndMissingIndexes() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed("[\"POSITIVE\", {\"sentiment\": \"NEGATIVE\"}, 7, {\"index\": 3, \"sentiment\": \"NEUTRAL\"}]");
+
+        // The number still takes a position, so later elements keep their place
+        assertEquals(List.of("0:null:POSITIVE", "1:null:NEGATIVE", "3:3:NEUTRAL"), elements);
+        assertEquals(4, parser.getElementCount());
+    }
+
+    @Test
+    void ignoresNestedFieldsAndTextAfterTheArray() throws IOException {
+        IncrementalSentimentParser parser = parser();
+
+        parser.feed("[{\"index\": 0, \"meta\": {\"sentiment\": \"NEGATIVE\", \"index\": 9}, \"sentiment\": \"POSITIVE\"}]");
+        parser.feed(" trailing [\"NEGATIVE\"]");
+
+        assertEquals(List.of("0:0:POSITIVE"), elements);
+        assertTrue(parser.isComplete());
+    }
+
+    private IncrementalSentimentParser parser() throws IOException {
+        return new IncrementalSentimentParser(new JsonFactory(),
+                (position, index, sentiment) -> elements.add(position + ":" + index + ":" + sentiment));
+    }
+}
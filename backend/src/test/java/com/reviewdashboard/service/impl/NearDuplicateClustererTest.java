@@ -0,0 +1,69 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearDuplicateClustererTest {
+
+    private final NearDuplicateClusterer clusterer = new NearDuplicateClusterer(3);
+
+    @Test
+    void groupsNearIdenticalReviewsUnderTheFirstOne() {
+        List<String> texts = List.of(
+                "5 stars, fast shipping!",
+                "Arrived broken and support never answered",
+                "5 STARS fast shipping",
+                "5 stars... fast shipping");
+
+        List<NearDuplicateClusterer.Cluster> clusters = clusterer.cluster(texts, t -> "same");
+
+        assertEquals(List.of(List.of(0, 2, 3), List.of(1)), members(clusters));
+        assertEquals(0, clusters.get(0).getRepresentative());
+        assertEquals(3, clusters.get(0).size());
+        assertEquals("same", clusters.get(0).getGuard());
+    }
+
+    @Test
+    void neverMergesReviewsWithDifferentGuards() {
+        List<String> texts = List.of("great product, would buy again", "great product would buy again");
+        Map<String, String> labels = Map.of(texts.get(0), "POSITIVE", texts.get(1), "NEGATIVE");
+
+        List<NearDuplicateClusterer.Cluster> clusters = clusterer.cluster(texts, labels::get);
+
+        assertEquals(List.of(List.of(0), List.of(1)), members(clusters));
+    }
+
+    @Test
+    void reviewsWithoutWordsAreNeverClustered() {
+        // Both have fingerprint 0 and the same lexicon guard, yet say opposite things
+        List<String> texts = List.of("😍😍😍", "😡", "!!!", "love it 😍");
+
+        List<NearDuplicateClusterer.Cluster> clusters = clusterer.cluster(texts, t -> "NEUTRAL");
+
+        assertEquals(List.of(List.of(0), List.of(1), List.of(2), List.of(3)), members(clusters));
+        assertFalse(clusters.get(0).isIndexable());
+        assertFalse(clusters.get(1).isIndexable());
+        assertFalse(clusters.get(2).isIndexable());
+        assertTrue(clusters.get(3).isIndexable());
+    }
+
+    @Test
+    void singletonsKeepEveryTextApart() {
+        List<NearDuplicateClusterer.Cluster> clusters = NearDuplicateClusterer.singletons(3);
+
+        assertEquals(List.of(List.of(0), List.of(1), List.of(2)), members(clusters));
+        assertEquals(2, clusters.get(2).getRepresentative());
+        assertFalse(clusters.get(2).isIndexable());
+    }
+
+    private static List<List<Integer>> members(List<NearDuplicateClusterer.Cluster> clusters) {
+        return clusters.stream().map(NearDuplicateClusterer.Cluster::getMembers).collect(Collectors.toList());
+    }
+}
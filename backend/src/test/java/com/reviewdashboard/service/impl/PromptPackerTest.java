@@ -0,0 +1,91 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptPackerTest {
+
+    // 12 characters: 3 tokens, plus 3 of per-review overhead
+    private static final String REVIEW = "twelve chars";
+
+    @Test
+    void splitsWhenTheInputBudgetIsFull() {
+        // 80 tokens of instructions leave room for two 6-token reviews
+        PromptPacker packer = new PromptPacker(92, 8192, 16, 2000, "compact");
+
+        List<List<String>> packs = packer.pack(Collections.nCopies(5, REVIEW));
+
+        assertEquals(List.of(2, 2, 1), sizes(packs));
+    }
+
+    @Test
+    void splitsWhenTheOutputBudgetIsFull() {
+        PromptPacker json = new PromptPacker(32000, 48, 16, 2000, "json");
+        assertEquals(List.of(3, 3, 1), sizes(json.pack(Collections.nCopies(7, REVIEW))));
+
+        // The compact answer needs about one token per review
+        PromptPacker compact = new PromptPacker(32000, 48, 16, 2000, "compact");
+        assertEquals(List.of(7), sizes(compact.pack(Collections.nCopies(7, REVIEW))));
+    }
+
+    @Test
+    void keepsOrderAndGivesAnOversizedReviewItsOwnPack() {
+        PromptPacker packer = new PromptPacker(92, 8192, 16, 2000, "compact");
+        String huge = "x".repeat(1000);
+
+        List<List<String>> packs = packer.pack(List.of("a", huge, "b", "c"));
+
+        assertEquals(List.of(List.of("a"), List.of(huge), List.of("b", "c")), packs);
+    }
+
+    @Test
+    void emptyInputHasNoPacks() {
+        PromptPacker packer = new PromptPacker(32000, 8192, 16, 2000, "compact");
+
+        assertTrue(packer.pack(List.of()).isEmpty());
+    }
+
+    @Test
+    void truncateCollapsesWhitespaceAndCutsLongReviews() {
+        PromptPacker packer = new PromptPacker(32000, 8192, 16, 5, "compact");
+
+        assertEquals("a b c", packer.truncate("  a\n\n b\t c  "));
+        assertEquals("abcde", packer.truncate("abcdefgh"));
+    }
+
+    @Test
+    void truncateDoesNotSplitASurrogatePair() {
+        PromptPacker packer = new PromptPacker(32000, 8192, 16, 5, "compact");
+
+        // The emoji would straddle the cut, so it is left out whole
+        assertEquals("abcd", packer.truncate("abcd👍xyz"));
+    }
+
+    @Test
+    void collapseWhitespaceReturnsCleanReviewsAsIs() {
+        String clean = "already clean text";
+
+        assertSame(clean, PromptPacker.collapseWhitespace(clean));
+        assertEquals("x y", PromptPacker.collapseWhitespace("x  y"));
+        assertEquals("x", PromptPacker.collapseWhitespace(" x"));
+        assertEquals("", PromptPacker.collapseWhitespace(" \n "));
+    }
+
+    @Test
+    void estimateTokensRoundsUp() {
+        assertEquals(0, PromptPacker.estimateTokens(""));
+        assertEquals(1, PromptPacker.estimateTokens("abcd"));
+        assertEquals(2, PromptPacker.estimateTokens("abcde"));
+    }
+
+    private static List<Integer> sizes(List<List<String>> packs) {
+        return packs.stream().map(List::size).collect(Collectors.toList());
+    }
+}
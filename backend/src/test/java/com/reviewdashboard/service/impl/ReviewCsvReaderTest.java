@@ -0,0 +1,69 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReviewCsvReaderTest {
+
+    @Test
+    void skipsHeaderAndBlankRows() throws IOException {
+        List<String> texts = readAll("reviewText,productId\nGreat phone,P1\n\n,P2\n   ,P3\nBroke in a week,P4\n");
+
+        assertEquals(List.of("Great phone", "Broke in a week"), texts);
+    }
+
+    @Test
+    void keepsQuotedCommasInTheFirstColumn() throws IOException {
+        List<String> texts = readAll("reviewText,productId\n\"Cheap, but it works\",P1\n");
+
+        assertEquals(List.of("Cheap, but it works"), texts);
+    }
+
+    @Test
+    void handlesCrLfAndMissingTrailingNewline() throws IOException {
+        List<String> texts = readAll("reviewText\r\nFirst\r\nSecond");
+
+        assertEquals(List.of("First", "Second"), texts);
+    }
+
+    @Test
+    void decodesUtf8() throws IOException {
+        List<String> texts = readAll("reviewText\nTrès bien 👍\n");
+
+        assertEquals(List.of("Très bien 👍"), texts);
+    }
+
+    @Test
+    void headerOnlyOrEmptyInputHasNoReviews() throws IOException {
+        assertEquals(List.of(), readAll("reviewText,productId\n"));
+        assertEquals(List.of(), readAll(""));
+    }
+
+    @Test
+    void parseReviewTextReturnsFirstColumn() {
+        assertEquals("only", ReviewCsvReader.parseReviewText("only"));
+        assertEquals("a", ReviewCsvReader.parseReviewText("a,b,c"));
+        assertEquals("\"", ReviewCsvReader.parseReviewText("\""));
+        assertNull(ReviewCsvReader.parseReviewText(",b"));
+    }
+
+    private static List<String> readAll(String csv) throws IOException {
+        List<String> texts = new ArrayList<>();
+        try (ReviewCsvReader reader = new ReviewCsvReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            String text;
+            while ((text = reader.nextReviewText()) != null) {
+                texts.add(text);
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,149 @@
+package com.reviewdashboard.service.impl;
+
+import com.reviewdashboard.dto.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentimentRequestCoalescerTest {
+
+    private final AnalysisScheduler scheduler = new AnalysisScheduler(1, 1, 1, 30);
+    private final PipelineMetrics metrics = new PipelineMetrics(new SimpleMeterRegistry(), scheduler,
+            new AdaptiveConcurrencyLimiter(4, 1, 32, 60_000, 0.5, 1_000));
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    // Texts of every combined request the classifier received
+    private final List<List<String>> requests = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void acceptsOnlySmallRequestsWhenEnabled() {
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 25, 200, metrics);
+        assertTrue(coalescer.accepts(199));
+        assertFalse(coalescer.accepts(200));
+
+        assertFalse(new SentimentRequestCoalescer(false, 25, 200, metrics).accepts(1));
+    }
+
+    @Test
+    void loneCallerIsClassifiedAfterTheLinger() {
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 10, 200, metrics);
+        Map<Integer, String> results = new ConcurrentHashMap<>();
+
+        coalescer.classify(List.of("a", "b"), (position, result) -> results.put(position, result.getSentiment()),
+                echo());
+
+        assertEquals(Map.of(0, "a!", 1, "b!"), results);
+        assertEquals(List.of(List.of("a", "b")), requests);
+    }
+
+    @Test
+    void routesResultsOfASharedRoundBackToEachCaller() throws Exception {
+        // The long linger only ends early because the second caller fills the round
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 10_000, 4, metrics);
+
+        Future<Map<Integer, String>> first = submit(coalescer, List.of("a1", "a2"), echo());
+        Future<Map<Integer, String>> second = submit(coalescer, List.of("b1", "b2"), echo());
+
+        assertEquals(Map.of(0, "a1!", 1, "a2!"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of(0, "b1!", 1, "b2!"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.size());
+        assertEquals(4, requests.get(0).size());
+    }
+
+    @Test
+    void sameTextFromTwoCallersIsAskedOnce() throws Exception {
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 10_000, 3, metrics);
+
+        Future<Map<Integer, String>> first = submit(coalescer, List.of("shared", "a"), echo());
+        Future<Map<Integer, String>> second = submit(coalescer, List.of("b", "shared"), echo());
+
+        assertEquals(Map.of(0, "shared!", 1, "a!"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Map.of(0, "b!", 1, "shared!"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).size());
+    }
+
+    @Test
+    void everyCallerReturnsWhenTheClassifierAnswersOnlyPartOfTheRound() throws Exception {
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 10_000, 4, metrics);
+        // Answers the first text, then fails
+        BiConsumer<List<String>, SentimentListener> failing = (texts, listener) -> {
+            requests.add(texts);
+            listener.onResult(0, new SentimentResult(texts.get(0) + "!"));
+            throw new IllegalStateException("model unavailable");
+        };
+
+        Future<Map<Integer, String>> first = submit(coalescer, List.of("a1", "a2"), failing);
+        Future<Map<Integer, String>> second = submit(coalescer, List.of("b1", "b2"), failing);
+
+        // The leader sees the failure, the other caller just gets fewer results
+        List<Map<Integer, String>> returned = new ArrayList<>();
+        int failed = 0;
+        for (Future<Map<Integer, String>> caller : List.of(first, second)) {
+            try {
+                returned.add(caller.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                failed++;
+            }
+        }
+        assertEquals(1, failed);
+        assertEquals(1, returned.size());
+        assertTrue(returned.get(0).size() <= 1);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void leaderFailureIsRethrownOnItsOwnThread() {
+        SentimentRequestCoalescer coalescer = new SentimentRequestCoalescer(true, 1, 200, metrics);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.classify(List.of("a"), (position, result) -> { },
+                (texts, listener) -> {
+                    throw new IllegalStateException("model unavailable");
+                }));
+    }
+
+    private Future<Map<Integer, String>> submit(SentimentRequestCoalescer coalescer, List<String> reviews,
+                                                BiConsumer<List<String>, SentimentListener> classifier) {
+        return callers.submit((Callable<Map<Integer, String>>) () -> {
+            Map<Integer, String> results = new ConcurrentHashMap<>();
+            coalescer.classify(reviews, (position, result) -> results.put(position, result.getSentiment()),
+                    classifier);
+            return results;
+        });
+    }
+
+    // Labels each text with itself plus "!", so routing mistakes show up in the results
+    private BiConsumer<List<String>, SentimentListener> echo() {
+        return (texts, listener) -> {
+            requests.add(texts);
+            for (int i = 0; i < texts.size(); i++) {
+                listener.onResult(i, new SentimentResult(texts.get(i) + "!"));
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimHashIndexTest {
+
+    private static final long BASE = 0x9E3779B97F4A7C15L;
+
+    @Test
+    void findsThreeBitsApartInDifferentBands() {
+        SimHashIndex<String> index = index(3);
+        index.add(BASE, "P", "base");
+
+        // One flipped bit in each of three bands: only the fourth band still matches
+        assertEquals("base", index.findNear(flip(BASE, 0, 16, 32), "P"));
+        assertEquals("base", index.findNear(flip(BASE, 15, 31, 63), "P"));
+    }
+
+    @Test
+    void missesFourBitsApart() {
+        SimHashIndex<String> index = index(3);
+        index.add(BASE, "P", "base");
+
+        // Spread over all bands, no band matches
+        assertNull(index.findNear(flip(BASE, 0, 16, 32, 48), "P"));
+        // Within one band, three bands match but the distance is over the limit
+        assertNull(index.findNear(flip(BASE, 0, 1, 2, 3), "P"));
+    }
+
+    @Test
+    void respectsASmallerMaxDistance() {
+        SimHashIndex<String> index = index(1);
+        index.add(BASE, "P", "base");
+
+        assertEquals("base", index.findNear(BASE, "P"));
+        assertEquals("base", index.findNear(flip(BASE, 40), "P"));
+        assertNull(index.findNear(flip(BASE, 40, 41), "P"));
+    }
+
+    @Test
+    void returnsTheClosestEntry() {
+        SimHashIndex<String> index = index(3);
+        index.add(flip(BASE, 1, 17, 33), "P", "three away");
+        index.add(flip(BASE, 2), "P", "one away");
+
+        assertEquals("one away", index.findNear(BASE, "P"));
+    }
+
+    @Test
+    void onlyMatchesEqualGuards() {
+        SimHashIndex<String> index = index(3);
+        index.add(BASE, "POSITIVE", "base");
+
+        assertNull(index.findNear(BASE, "NEGATIVE"));
+        assertNull(index.findNear(BASE, null));
+        assertEquals("base", index.findNear(BASE, "POSITIVE"));
+    }
+
+    @Test
+    void stopsAddingWhenFull() {
+        SimHashIndex<String> index = new SimHashIndex<>(3, 1);
+
+        assertTrue(index.add(BASE, "P", "first"));
+        assertFalse(index.add(~BASE, "P", "second"));
+        assertEquals(1, index.size());
+        assertEquals("first", index.findNear(BASE, "P"));
+        assertNull(index.findNear(~BASE, "P"));
+    }
+
+    @Test
+    void rejectsDistancesTheBandsCannotGuarantee() {
+        assertThrows(IllegalArgumentException.class, () -> index(SimHashIndex.MAX_DISTANCE + 1));
+        assertThrows(IllegalArgumentException.class, () -> index(-1));
+    }
+
+    @Test
+    void fingerprintIgnoresCasePunctuationAndSpacing() {
+        assertEquals(SimHashIndex.fingerprint("5 stars, fast shipping!"),
+                SimHashIndex.fingerprint("5 Stars   fast shipping"));
+        assertNotEquals(SimHashIndex.fingerprint("5 stars, fast shipping"),
+                SimHashIndex.fingerprint("Arrived broken and support never answered"));
+    }
+
+    @Test
+    void textsWithoutWordsHaveNoUsableFingerprint() {
+        assertFalse(SimHashIndex.hasWords("😍😍😍"));
+        assertFalse(SimHashIndex.hasWords(" ?! "));
+        assertEquals(SimHashIndex.fingerprint("😍😍😍"), SimHashIndex.fingerprint("😡"));
+        assertTrue(SimHashIndex.hasWords("5 ⭐"));
+        assertTrue(SimHashIndex.hasWords("très"));
+    }
+
+    private static SimHashIndex<String> index(int maxDistance) {
+        return new SimHashIndex<>(maxDistance, Integer.MAX_VALUE);
+    }
+
+    private static long flip(long fingerprint, int... bits) {
+        for (int bit : bits) {
+            fingerprint ^= 1L << bit;
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,94 @@
+package com.reviewdashboard.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StratifiedReviewSamplerTest {
+
+    @Test
+    void keepsEverythingBelowCapacity() {
+        StratifiedReviewSampler sampler = new StratifiedReviewSampler(false, 10);
+        sampler.offer("a", "POSITIVE");
+        sampler.offer("b", "NEGATIVE");
+
+        Map<String, List<String>> sample = sampler.sample();
+
+        assertEquals(Set.of(StratifiedReviewSampler.ALL), sample.keySet());
+        assertEquals(Set.of("a", "b"), Set.copyOf(sample.get(StratifiedReviewSampler.ALL)));
+    }
+
+    @Test
+    void boundsEveryStratumByCapacity() {
+        StratifiedReviewSampler sampler = new StratifiedReviewSampler(true, 3);
+        for (int i = 0; i < 100; i++) {
+            sampler.offer("p" + i, "POSITIVE");
+        }
+        sampler.offer("n0", "NEGATIVE");
+
+        Map<String, List<String>> sample = sampler.sample();
+
+        assertEquals(List.of("POSITIVE", "NEGATIVE"), List.copyOf(sample.keySet()));
+        assertEquals(3, sample.get("POSITIVE").size());
+        assertTrue(sample.get("POSITIVE").stream().allMatch(t -> t.startsWith("p")));
+        assertEquals(List.of("n0"), sample.get("NEGATIVE"));
+    }
+
+    @Test
+    void labelsWeightedReviews() {
+        StratifiedReviewSampler sampler = new StratifiedReviewSampler(false, 5);
+        sampler.offer("common complaint", "NEGATIVE", 12);
+        sampler.offer("one-off", "NEGATIVE", 1);
+
+        assertEquals(Set.of("[x12] common complaint", "one-off"),
+                Set.copyOf(sampler.sample().get(StratifiedReviewSampler.ALL)));
+    }
+
+    @Test
+    void zeroCapacityKeepsNothing() {
+        StratifiedReviewSampler sampler = new StratifiedReviewSampler(false, 0);
+        sampler.offer("a", "POSITIVE");
+
+        assertTrue(sampler.sample().get(StratifiedReviewSampler.ALL).isEmpty());
+    }
+
+    @Test
+    void unweightedSampleIsUniform() {
+        // Each of 100 reviews should land in a 10-review sample about 10% of the time
+        int trials = 2000;
+        int firstKept = 0;
+        int lastKept = 0;
+        for (int t = 0; t < trials; t++) {
+            StratifiedReviewSampler sampler = new StratifiedReviewSampler(false, 10);
+            for (int i = 0; i < 100; i++) {
+                sampler.offer("r" + i, "NEUTRAL");
+            }
+            List<String> kept = sampler.sample().get(StratifiedReviewSampler.ALL);
+            firstKept += kept.contains("r0") ? 1 : 0;
+            lastKept += kept.contains("r99") ? 1 : 0;
+        }
+        assertTrue(firstKept > 100 && firstKept < 300, "first review kept " + firstKept + " times");
+        assertTrue(lastKept > 100 && lastKept < 300, "last review kept " + lastKept + " times");
+    }
+
+    @Test
+    void heavyReviewIsKeptInProportionToItsWeight() {
+        // With one slot, a review standing for 1000 beats ten single ones about 99% of the time
+        int trials = 200;
+        int heavyKept = 0;
+        for (int t = 0; t < trials; t++) {
+            StratifiedReviewSampler sampler = new StratifiedReviewSampler(false, 1);
+            for (int i = 0; i < 10; i++) {
+                sampler.offer("single " + i, "POSITIVE");
+            }
+            sampler.offer("cluster", "POSITIVE", 1000);
+            heavyKept += sampler.sample().get(StratifiedReviewSampler.ALL).get(0).endsWith("cluster") ? 1 : 0;
+        }
+        assertTrue(heavyKept > 180, "heavy review kept " + heavyKept + " times");
+    }
+}
@@ -0,0 +1,95 @@
+package com.reviewdashboard.service.impl;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.reviewdashboard.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UploadDecodingTest {
+
+    private static final byte[] CSV = "reviewText\nGreat phone\n\"Cheap, but it works\"\n".repeat(1000)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void decodesDeclaredEncodings() throws IOException {
+        assertArrayEquals(CSV, decode(gzip(CSV), UploadDecoding.GZIP));
+        assertArrayEquals(CSV, decode(zstd(CSV), UploadDecoding.ZSTD));
+        assertArrayEquals(CSV, decode(CSV, UploadDecoding.IDENTITY));
+    }
+
+    @Test
+    void sniffsUndeclaredEncodings() throws IOException {
+        assertArrayEquals(CSV, decode(gzip(CSV), null));
+        assertArrayEquals(CSV, decode(zstd(CSV), null));
+        assertArrayEquals(CSV, decode(CSV, null));
+    }
+
+    @Test
+    void sniffingHandlesBodiesShorterThanAMagicNumber() throws IOException {
+        assertArrayEquals(new byte[0], decode(new byte[0], null));
+        assertArrayEquals(new byte[] {0x1F}, decode(new byte[] {0x1F}, null));
+        assertArrayEquals(new byte[] {0x28, (byte) 0xB5}, decode(new byte[] {0x28, (byte) 0xB5}, null));
+    }
+
+    @Test
+    void rawBodyDeclaredAsGzipFails() {
+        assertThrows(ZipException.class, () -> decode(CSV, UploadDecoding.GZIP));
+    }
+
+    @Test
+    void encodingOfNormalizesHeaders() {
+        assertEquals(UploadDecoding.GZIP, UploadDecoding.encodingOf("GZIP", "text/csv"));
+        assertEquals(UploadDecoding.GZIP, UploadDecoding.encodingOf(" x-gzip ", null));
+        assertEquals(UploadDecoding.ZSTD, UploadDecoding.encodingOf("zstd", null));
+        assertEquals(UploadDecoding.IDENTITY, UploadDecoding.encodingOf("identity", "application/gzip"));
+    }
+
+    @Test
+    void encodingOfFallsBackToTheContentType() {
+        assertEquals(UploadDecoding.GZIP, UploadDecoding.encodingOf(null, "application/gzip"));
+        assertEquals(UploadDecoding.GZIP, UploadDecoding.encodingOf("", "application/x-gzip"));
+        assertEquals(UploadDecoding.ZSTD, UploadDecoding.encodingOf(null, "application/zstd"));
+        assertNull(UploadDecoding.encodingOf(null, "text/csv"));
+        assertNull(UploadDecoding.encodingOf(null, null));
+    }
+
+    @Test
+    void encodingOfRejectsUnknownEncodings() {
+        assertThrows(InvalidRequestException.class, () -> UploadDecoding.encodingOf("br", "text/csv"));
+    }
+
+    private static byte[] decode(byte[] body, String encoding) throws IOException {
+        try (InputStream in = UploadDecoding.decode(new ByteArrayInputStream(body), encoding)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] zstd(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new ZstdOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -13,8 +13,9 @@ import {
 } from '@mui/material';
 
 import FileUpload from './components/FileUpload';
+import LiveProgress from './components/LiveProgress';
 import Dashboard from './pages/Dashboard';
-import { getAnalysis } from './services/api';
+import { getAnalysis, getStatus, subscribeProgress } from './services/api';
 
 // App theme configuration (dark mode)
 const theme = createTheme({
@@ -77,44 +78,69 @@ function App() {
     // Stores error message (if any)
     const [error, setError] = useState(null);
 
-    // Called after file upload is successful
-    const handleAnalysisComplete = async (batchId) => {
-        setLoading(true);
-        setError(null);
-        setAnalysisData(null);
+    // Latest progress pushed by the backend while analysis runs
+    const [progress, setProgress] = useState(null);
+
+    // Fetches the final summary once the batch has finished
+    const loadResults = async (batchId) => {
+        try {
+            const response = await getAnalysis(batchId);
+            setAnalysisData(response);
+        } catch (error) {
+            setError('Failed to fetch analysis.');
+        }
+        setLoading(false);
+    };
 
-        // Poll backend until analysis is completed
-        const pollForResults = async (retries = 0) => {
-            // Stop polling after some time
-            if (retries > 300) {
-                setError('Analysis timed out. Please try again later.');
+    // Fallback for when the stream cannot be opened: poll the cheap status endpoint
+    const pollStatus = async (batchId, retries = 0) => {
+        if (retries > 300) {
+            setError('Analysis timed out. Please try again later.');
+            setLoading(false);
+            return;
+        }
+
+        try {
+            const status = await getStatus(batchId);
+            setProgress(status);
+            if (status.finished) {
+                loadResults(batchId);
+                return;
+            }
+        } catch (error) {
+            if (!error.response || error.response.status !== 404) {
+                setError('Failed to fetch analysis.');
                 setLoading(false);
                 return;
             }
+        }
+        setTimeout(() => pollStatus(batchId, retries + 1), 2000);
+    };
 
-            try {
-                const response = await getAnalysis(batchId);
-
-                // If analysis is still pending, keep polling
-                if (response && response.status === 'PENDING') {
-                    setTimeout(() => pollForResults(retries + 1), 2000);
-                } else {
-                    setAnalysisData(response);
-                    setLoading(false);
+    // Called after file upload is successful
+    const handleAnalysisComplete = (batchId) => {
+        setLoading(true);
+        setError(null);
+        setAnalysisData(null);
+        setProgress(null);
+
+        // Backend pushes progress until the batch completes or fails
+        const source = subscribeProgress(
+            batchId,
+            (update) => {
+                setProgress(update);
+                if (update.finished) {
+                    source.close();
+                    loadResults(batchId);
                 }
-            } catch (error) {
-                // Handle case when result is not ready yet
-                if (error.response && error.response.status === 404) {
-                    setTimeout(() => pollForResults(retries + 1), 2000);
-                } else {
-                    setError('Failed to fetch analysis.');
-                    setLoading(false);
+            },
+            () => {
+                // The browser reconnects by itself unless the stream was refused
+                if (source.readyState === EventSource.CLOSED) {
+                    pollStatus(batchId);
                 }
             }
-        };
-
-        // Start polling
-        pollForResults();
+        );
     };
 
     return (
@@ -148,6 +174,11 @@ function App() {
                             <Typography sx={{ mt: 2 }}>
                                 Analyzing reviews...
                             </Typography>
+                            {progress && (
+                                <Box sx={{ mt: 3 }}>
+                                    <LiveProgress progress={progress} />
+                                </Box>
+                            )}
                         </Box>
                     )}
 
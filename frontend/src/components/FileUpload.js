@@ -20,7 +20,12 @@ const FileUpload = ({ onUploadSuccess }) => {
             onUploadSuccess(result.batchId);
             setUploading(false); // Done uploading, parent handles loading analysis
         } catch (err) {
-            setError("Failed to upload file. Please try again.");
+            if (err.response && err.response.status === 503) {
+                const retryAfter = err.response.headers['retry-after'];
+                setError(`Analysis is at capacity. Please try again in ${retryAfter || 'a few'} seconds.`);
+            } else {
+                setError("Failed to upload file. Please try again.");
+            }
             setUploading(false);
         }
     }, [onUploadSuccess]);
@@ -0,0 +1,36 @@
+import React from 'react';
+import { Box, Typography, LinearProgress, Grid, Chip } from '@mui/material';
+
+const STATE_LABELS = {
+    INGESTING: 'Reading file and analyzing',
+    ANALYZING: 'Analyzing remaining reviews',
+    SUMMARIZING: 'Writing summary',
+};
+
+// Partial results while a batch is still running: percent complete and the distribution so far
+const LiveProgress = ({ progress }) => {
+    const { state, percentComplete, reviewsAnalyzed, reviewsIngested, positiveCount, neutralCount, negativeCount } = progress;
+    const share = (count) => (reviewsAnalyzed > 0 ? Math.round((100 * count) / reviewsAnalyzed) : 0);
+
+    return (
+        <Box sx={{ maxWidth: 600, mx: 'auto' }}>
+            <Typography variant="body2" color="text.secondary">
+                {STATE_LABELS[state] || 'Analyzing reviews'}: {reviewsAnalyzed} of {reviewsIngested} reviews ({percentComplete}%)
+            </Typography>
+            <LinearProgress variant="determinate" value={percentComplete} sx={{ mt: 1, mb: 2, height: 8, borderRadius: 4 }} />
+            <Grid container spacing={1} justifyContent="center">
+                <Grid item>
+                    <Chip label={`Positive ${positiveCount} (${share(positiveCount)}%)`} sx={{ bgcolor: 'rgba(75, 192, 192, 0.8)' }} />
+                </Grid>
+                <Grid item>
+                    <Chip label={`Neutral ${neutralCount} (${share(neutralCount)}%)`} sx={{ bgcolor: 'rgba(255, 206, 86, 0.8)' }} />
+                </Grid>
+                <Grid item>
+                    <Chip label={`Negative ${negativeCount} (${share(negativeCount)}%)`} sx={{ bgcolor: 'rgba(255, 99, 132, 0.8)' }} />
+                </Grid>
+            </Grid>
+        </Box>
+    );
+};
+
+export default LiveProgress;
@@ -6,10 +6,10 @@ import { Doughnut } from 'react-chartjs-2';
 ChartJS.register(ArcElement, Tooltip, Legend);
 
 const Dashboard = ({ data }) => {
-    const { positiveCount, neutralCount, negativeCount, overallSummary, topProsJson, topConsJson } = data;
+    const { positiveCount, neutralCount, negativeCount, overallSummary, topPros, topCons } = data;
 
-    const pros = topProsJson ? JSON.parse(topProsJson) : [];
-    const cons = topConsJson ? JSON.parse(topConsJson) : [];
+    const pros = topPros || [];
+    const cons = topCons || [];
 
     const chartData = {
         labels: ['Positive', 'Neutral', 'Negative'],
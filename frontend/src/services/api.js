@@ -13,3 +13,16 @@ export const getAnalysis = async (batchId) => {
     const response = await axios.get(`${API_URL}/analysis/${batchId}`);
     return response.data;
 };
+
+export const getStatus = async (batchId) => {
+    const response = await axios.get(`${API_URL}/status/${batchId}`);
+    return response.data;
+};
+
+// Opens the progress stream; onProgress receives every 'progress' event
+export const subscribeProgress = (batchId, onProgress, onError) => {
+    const source = new EventSource(`${API_URL}/progress/${batchId}`);
+    source.addEventListener('progress', (event) => onProgress(JSON.parse(event.data)));
+    source.onerror = onError;
+    return source;
+};